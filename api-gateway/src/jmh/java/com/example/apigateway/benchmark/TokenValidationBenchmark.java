@@ -0,0 +1,100 @@
+package com.example.apigateway.benchmark;
+
+import com.example.apigateway.config.JwtProperties;
+import com.example.apigateway.filter.LocalJwtVerifier;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token validation latency in the gateway. {@code remote} reproduces the previous
+ * path, a POST to a local stand-in for user-service's validate-token endpoint; {@code local}
+ * is the in-process check. SampleTime mode reports the p99 of both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class TokenValidationBenchmark {
+
+    private static final String SECRET = "SpringBootPromotionServiceWithRedisAndKafka";
+
+    private LocalJwtVerifier localJwtVerifier;
+    private DisposableServer userService;
+    private WebClient webClient;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        localJwtVerifier = new LocalJwtVerifier(jwtProperties);
+
+        long now = System.currentTimeMillis();
+        token = Jwts.builder()
+                .subject("42")
+                .claim("role", "USER")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 3600000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // Stand-in for user-service: verifies the token and answers like TokenResponse
+        userService = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.post("/api/v1/users/validate-token", (request, response) ->
+                        response.header("Content-Type", "application/json")
+                                .sendString(request.receive().aggregate().asString().map(body ->
+                                        "{\"id\":\"" + localJwtVerifier.verify(token).userId() + "\",\"valid\":true,\"role\":\"USER\"}"))))
+                .bindNow();
+        webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + userService.port())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        userService.disposeNow();
+    }
+
+    @Benchmark
+    public Integer local() {
+        return localJwtVerifier.verify(token).userId();
+    }
+
+    @Benchmark
+    public Integer remote() {
+        return webClient.post()
+                .uri("/api/v1/users/validate-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"token\":\"" + token + "\"}")
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(response -> Integer.valueOf(response.get("id").toString()))
+                .block();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HS256 keys shared with user-service. {@code jwt.secret} verifies tokens without a key id;
+ * {@code jwt.keys.<kid>} lists the keys that are active during a rotation.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    private String secret;
+    private Map<String, String> keys = new HashMap<>();
+}
@@ -1,17 +1,27 @@
 package com.example.apigateway.config;
 
+import com.example.apigateway.filter.RateLimitRules;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @Configuration
 public class RateLimitConfig {
 
+    /**
+     * Default limit for routes still using {@code RequestRateLimiter}; {@code TieredRateLimit}
+     * registers one config per policy and tier on this limiter.
+     */
     @Bean
-    public RedisRateLimiter redisRateLimiter() {
-        return new RedisRateLimiter(10, 20);
+    public RedisRateLimiter redisRateLimiter(RateLimitProperties rateLimitProperties) {
+        RateLimitProperties.Limit limit = rateLimitProperties.getPolicies()
+                .getOrDefault(rateLimitProperties.getDefaultPolicy(), Map.of())
+                .getOrDefault(RateLimitRules.DEFAULT_TIER, new RateLimitProperties.Limit());
+        return new RedisRateLimiter(limit.getReplenishRate(), limit.getBurstCapacity(), limit.getRequestedTokens());
     }
 
     @Bean
@@ -0,0 +1,46 @@
+package com.example.apigateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate-limit rules under {@code gateway.rate-limit}. Rules are matched in order against the route
+ * id, path and method and name a policy; a policy holds one limit per role ({@code ANONYMOUS} for
+ * requests without a user, {@code default} for any role not listed). Changes are picked up on
+ * {@code /actuator/refresh}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private String defaultPolicy = "default";
+    private Map<String, Map<String, Limit>> policies = new LinkedHashMap<>();
+    private List<Rule> rules = new ArrayList<>();
+    private long localBucketMaximumSize = 100_000;
+
+    @Getter
+    @Setter
+    public static class Rule {
+        private String routeId;
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private String policy;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int replenishRate = 10;
+        private int burstCapacity = 20;
+        private int requestedTokens = 1;
+    }
+}
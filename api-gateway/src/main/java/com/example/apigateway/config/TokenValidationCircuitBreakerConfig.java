@@ -0,0 +1,51 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.filter.RemoteTokenValidator;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig.SlidingWindowType;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+@Configuration
+public class TokenValidationCircuitBreakerConfig {
+
+    /**
+     * Opens once half of the last 20 remote validations failed and probes user-service again after
+     * {@code gateway.token-validation.open-seconds}. Only 5xx responses, connection errors and
+     * timeouts count as failures; a rejected token does not.
+     */
+    @Bean
+    public Customizer<ReactiveResilience4JCircuitBreakerFactory> tokenValidationCircuitBreaker(
+            @Value("${gateway.token-validation.timeout-millis:500}") long timeoutMillis,
+            @Value("${gateway.token-validation.open-seconds:10}") long openSeconds
+    ) {
+        return factory -> factory.configure(builder -> builder
+                .timeLimiterConfig(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(timeoutMillis))
+                        .build())
+                .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                        .slidingWindowType(SlidingWindowType.COUNT_BASED)
+                        .slidingWindowSize(20)
+                        .minimumNumberOfCalls(10)
+                        .failureRateThreshold(50)
+                        .waitDurationInOpenState(Duration.ofSeconds(openSeconds))
+                        .recordException(TokenValidationCircuitBreakerConfig::isUnavailable)
+                        .build()), RemoteTokenValidator.CIRCUIT_BREAKER_ID);
+    }
+
+    private static boolean isUnavailable(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+}
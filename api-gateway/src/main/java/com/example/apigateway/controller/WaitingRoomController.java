@@ -0,0 +1,25 @@
+package com.example.apigateway.controller;
+
+import com.example.apigateway.filter.WaitingRoom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+
+    private final WaitingRoom waitingRoom;
+
+    @GetMapping("/position")
+    public Mono<ResponseEntity<WaitingRoom.Admission>> getPosition(@RequestParam String token) {
+        return waitingRoom.position(token)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+}
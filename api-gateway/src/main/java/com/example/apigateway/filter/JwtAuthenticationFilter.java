@@ -1,32 +1,34 @@
 package com.example.apigateway.filter;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.client.loadbalancer.LoadBalanced;
-import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
-
 @Slf4j
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
-    @LoadBalanced
-    private final WebClient webClient;
+    public static final String USER_ID_HEADER = "X-USER-ID";
+    public static final String USER_ROLE_HEADER = "X-USER-ROLE";
+
+    private final LocalJwtVerifier localJwtVerifier;
+    private final RemoteTokenValidator remoteTokenValidator;
+    private final TokenValidationCache tokenValidationCache;
 
-    public JwtAuthenticationFilter(ReactorLoadBalancerExchangeFilterFunction lbFunction) {
+    public JwtAuthenticationFilter(LocalJwtVerifier localJwtVerifier,
+                                   RemoteTokenValidator remoteTokenValidator,
+                                   TokenValidationCache tokenValidationCache) {
         super(Config.class);
-        this.webClient = WebClient.builder()
-                .filter(lbFunction)
-                .baseUrl("http://user-service")
-                .build();
+        this.localJwtVerifier = localJwtVerifier;
+        this.remoteTokenValidator = remoteTokenValidator;
+        this.tokenValidationCache = tokenValidationCache;
     }
 
     @Override
@@ -36,33 +38,65 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
                 return validateToken(token)
-                        .flatMap(userId -> proceedWithUserId(userId, exchange, chain))
-                        .switchIfEmpty(chain.filter(exchange)) // If token is invalid, continue without setting userId
+                        .flatMap(verifiedToken -> proceedWithUser(verifiedToken, exchange, chain))
+                        .switchIfEmpty(chain.filter(withoutUserHeaders(exchange))) // If token is invalid, continue without setting userId
                         .onErrorResume(e -> handleAuthenticationError(exchange, e)); // Handle errors
             }
 
-            return chain.filter(exchange);
+            return chain.filter(withoutUserHeaders(exchange));
         };
     }
 
     private Mono<Void> handleAuthenticationError(ServerWebExchange exchange, Throwable e) {
+        if (e instanceof UserServiceUnavailableException) {
+            log.warn("Token validation unavailable: {}", e.getMessage());
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return exchange.getResponse().setComplete();
+        }
         exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
         return exchange.getResponse().setComplete();
     }
 
-    private Mono<Integer> validateToken(String token) {
-        return webClient.post()
-                .uri("/api/v1/users/validate-token")
-                .bodyValue("{\"token\":\"" + token + "\"}")
-                .header("Content-Type", "application/json")
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> Integer.valueOf(response.get("id").toString()));
+    private Mono<VerifiedToken> validateToken(String token) {
+        return tokenValidationCache.get(token, this::verifyToken);
+    }
+
+    // Verified in-process; only tokens signed with a key this gateway does not know go to user-service
+    private Mono<VerifiedToken> verifyToken(String token) {
+        return Mono.fromCallable(() -> localJwtVerifier.verify(token))
+                .onErrorResume(UnknownKeyIdException.class, e -> {
+                    log.debug("Falling back to remote token validation: {}", e.getMessage());
+                    return remoteTokenValidator.validate(token);
+                });
     }
 
-    private Mono<Void> proceedWithUserId(Integer userId, ServerWebExchange exchange, GatewayFilterChain chain) {
-        exchange.getRequest().mutate().header("X-USER-ID", String.valueOf(userId));
-        return chain.filter(exchange);
+    private Mono<Void> proceedWithUser(VerifiedToken verifiedToken, ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.set(USER_ID_HEADER, String.valueOf(verifiedToken.userId()));
+                    if (verifiedToken.role() != null) {
+                        headers.set(USER_ROLE_HEADER, verifiedToken.role());
+                    } else {
+                        headers.remove(USER_ROLE_HEADER);
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    // Identity headers are only trusted when this filter set them
+    private ServerWebExchange withoutUserHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (!headers.containsKey(USER_ID_HEADER) && !headers.containsKey(USER_ROLE_HEADER)) {
+            return exchange;
+        }
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(mutable -> {
+                    mutable.remove(USER_ID_HEADER);
+                    mutable.remove(USER_ROLE_HEADER);
+                })
+                .build();
+        return exchange.mutate().request(request).build();
     }
 
     public static class Config {
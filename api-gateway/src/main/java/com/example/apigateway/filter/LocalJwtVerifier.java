@@ -0,0 +1,80 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Verifies user-service tokens in the gateway, so authenticated requests no longer need a
+ * round-trip to {@code /api/v1/users/validate-token}.
+ * <p>
+ * Keys are derived once at startup. A token signed with a key id the gateway does not know yet
+ * raises {@link UnknownKeyIdException}, and the caller falls back to remote validation.
+ */
+@Component
+public class LocalJwtVerifier {
+
+    // Set by user-service next to iat, which only has second precision
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    private final JwtParser jwtParser;
+
+    public LocalJwtVerifier(JwtProperties jwtProperties) {
+        SecretKey defaultKey = jwtProperties.getSecret() != null ? toKey(jwtProperties.getSecret()) : null;
+        Map<String, SecretKey> keys = new HashMap<>();
+        jwtProperties.getKeys().forEach((keyId, secret) -> keys.put(keyId, toKey(secret)));
+
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        String keyId = header.getKeyId();
+                        Key key = keyId == null ? defaultKey : keys.get(keyId);
+                        if (key == null) {
+                            throw new UnknownKeyIdException(keyId);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the user id, role and lifetime carried by a valid token.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or badly signed
+     * @throws UnknownKeyIdException        if the token was signed with a key the gateway does not have
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        return new VerifiedToken(
+                Integer.valueOf(claims.getSubject()),
+                claims.get("role", String.class),
+                issuedAt(claims),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    private static Instant issuedAt(Claims claims) {
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return Instant.ofEpochMilli(issuedAtMillis);
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.apigateway.filter;
+
+/**
+ * In-memory token bucket with the same rate and capacity as the Redis one. Only this instance
+ * draws from it, so an empty local bucket means the shared bucket is empty too.
+ */
+class LocalTokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private RateLimitRules.RateLimit limit;
+    private double tokens;
+    private long refilledAt;
+
+    LocalTokenBucket(RateLimitRules.RateLimit limit, long now) {
+        reset(limit, now);
+    }
+
+    synchronized boolean tryAcquire(RateLimitRules.RateLimit currentLimit, long now) {
+        if (!currentLimit.equals(limit)) {
+            reset(currentLimit, now);
+        }
+        tokens = Math.min(limit.burstCapacity(), tokens + (now - refilledAt) / NANOS_PER_SECOND * limit.replenishRate());
+        refilledAt = now;
+        if (tokens < limit.requestedTokens()) {
+            return false;
+        }
+        tokens -= limit.requestedTokens();
+        return true;
+    }
+
+    // Called when Redis denies a request the local bucket allowed: other instances used the tokens
+    synchronized void drain() {
+        tokens = 0;
+    }
+
+    private void reset(RateLimitRules.RateLimit newLimit, long now) {
+        limit = newLimit;
+        tokens = newLimit.burstCapacity();
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.config.RateLimitProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles {@link RateLimitProperties} into an immutable rule set and resolves the limit for a
+ * request. A refresh that fails to compile keeps the previous rules.
+ */
+@Slf4j
+@Component
+public class RateLimitRules {
+
+    public static final String ANONYMOUS_TIER = "ANONYMOUS";
+    public static final String DEFAULT_TIER = "default";
+
+    private static final String CONFIG_ID_PREFIX = "rate-limit:";
+    private static final RateLimitProperties.Limit FALLBACK_LIMIT = new RateLimitProperties.Limit();
+
+    private final RateLimitProperties rateLimitProperties;
+    private final RedisRateLimiter redisRateLimiter;
+    private volatile Compiled compiled;
+
+    public RateLimitRules(RateLimitProperties rateLimitProperties, RedisRateLimiter redisRateLimiter) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.redisRateLimiter = redisRateLimiter;
+    }
+
+    @PostConstruct
+    public void load() {
+        compiled = compile(rateLimitProperties);
+        registerLimits(compiled);
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        try {
+            load();
+            log.info("Rate limit rules reloaded: {} rules, {} policies",
+                    compiled.rules().size(), compiled.policies().size());
+        } catch (RuntimeException e) {
+            log.error("Keeping previous rate limit rules: {}", e.getMessage(), e);
+        }
+    }
+
+    public RateLimit resolve(ServerWebExchange exchange, String role) {
+        Compiled current = compiled;
+        String policy = current.defaultPolicy();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        HttpMethod method = exchange.getRequest().getMethod();
+        for (CompiledRule rule : current.rules()) {
+            if (rule.matches(routeId, path, method)) {
+                policy = rule.policy();
+                break;
+            }
+        }
+
+        Map<String, RateLimit> tiers = current.policies().get(policy);
+        String tier = role != null ? role : ANONYMOUS_TIER;
+        RateLimit limit = tiers.get(tier);
+        return limit != null ? limit : tiers.get(DEFAULT_TIER);
+    }
+
+    private Compiled compile(RateLimitProperties properties) {
+        Map<String, Map<String, RateLimit>> policies = new HashMap<>();
+        properties.getPolicies().forEach((policy, tiers) -> {
+            Map<String, RateLimit> compiledTiers = new HashMap<>();
+            tiers.forEach((tier, limit) -> compiledTiers.put(tier, toRateLimit(policy, tier, limit)));
+            compiledTiers.putIfAbsent(DEFAULT_TIER, toRateLimit(policy, DEFAULT_TIER, FALLBACK_LIMIT));
+            policies.put(policy, Map.copyOf(compiledTiers));
+        });
+        policies.putIfAbsent(properties.getDefaultPolicy(),
+                Map.of(DEFAULT_TIER, toRateLimit(properties.getDefaultPolicy(), DEFAULT_TIER, FALLBACK_LIMIT)));
+
+        List<CompiledRule> rules = new ArrayList<>();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            if (!policies.containsKey(rule.getPolicy())) {
+                throw new IllegalStateException("Rate limit rule refers to an unknown policy: " + rule.getPolicy());
+            }
+            rules.add(new CompiledRule(
+                    rule.getRouteId(),
+                    rule.getPath() != null ? PathPatternParser.defaultInstance.parse(rule.getPath()) : null,
+                    rule.getMethods().stream().map(HttpMethod::valueOf).collect(Collectors.toUnmodifiableSet()),
+                    rule.getPolicy()));
+        }
+        return new Compiled(properties.getDefaultPolicy(), Map.copyOf(policies), List.copyOf(rules));
+    }
+
+    // Each policy and tier gets its own RedisRateLimiter config, looked up by id on every call
+    private void registerLimits(Compiled compiled) {
+        compiled.policies().values().forEach(tiers -> tiers.values().forEach(limit ->
+                redisRateLimiter.getConfig().put(limit.configId(), new RedisRateLimiter.Config()
+                        .setReplenishRate(limit.replenishRate())
+                        .setBurstCapacity(limit.burstCapacity())
+                        .setRequestedTokens(limit.requestedTokens()))));
+    }
+
+    private static RateLimit toRateLimit(String policy, String tier, RateLimitProperties.Limit limit) {
+        if (limit.getReplenishRate() <= 0 || limit.getBurstCapacity() < limit.getReplenishRate()) {
+            throw new IllegalStateException("Invalid rate limit for " + policy + "/" + tier
+                    + ": burst capacity must be at least the replenish rate, which must be positive");
+        }
+        return new RateLimit(policy, tier, CONFIG_ID_PREFIX + policy + ":" + tier,
+                limit.getReplenishRate(), limit.getBurstCapacity(), limit.getRequestedTokens());
+    }
+
+    public record RateLimit(String policy, String tier, String configId,
+                            int replenishRate, int burstCapacity, int requestedTokens) {
+    }
+
+    private record CompiledRule(String routeId, PathPattern path, Set<HttpMethod> methods, String policy) {
+
+        boolean matches(String requestRouteId, PathContainer requestPath, HttpMethod requestMethod) {
+            return (routeId == null || routeId.equals(requestRouteId))
+                    && (path == null || path.matches(requestPath))
+                    && (methods.isEmpty() || methods.contains(requestMethod));
+        }
+    }
+
+    private record Compiled(String defaultPolicy, Map<String, Map<String, RateLimit>> policies,
+                            List<CompiledRule> rules) {
+    }
+}
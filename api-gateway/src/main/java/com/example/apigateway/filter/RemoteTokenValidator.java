@@ -0,0 +1,147 @@
+package com.example.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Validates tokens against user-service's {@code /api/v1/users/validate-token}.
+ * <p>
+ * The request body is written straight into a buffer around pre-encoded JSON, which is safe
+ * because only base64url tokens are accepted, and the response is read with Jackson's streaming
+ * parser. Calls are bounded by a timeout and go through the {@value #CIRCUIT_BREAKER_ID} circuit
+ * breaker, so a slow user-service fails requests fast instead of holding event-loop connections.
+ */
+@Component
+public class RemoteTokenValidator {
+
+    public static final String CIRCUIT_BREAKER_ID = "user-service-token-validation";
+
+    private static final String VALIDATE_TOKEN_PATH = "/api/v1/users/validate-token";
+    private static final byte[] BODY_PREFIX = "{\"token\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BODY_SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final WebClient webClient;
+    private final ReactiveCircuitBreaker circuitBreaker;
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    public RemoteTokenValidator(
+            ReactorLoadBalancerExchangeFilterFunction lbFunction,
+            ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+            @Value("${gateway.token-validation.connect-timeout-millis:250}") int connectTimeoutMillis,
+            @Value("${gateway.token-validation.timeout-millis:500}") long timeoutMillis
+    ) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(timeoutMillis));
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(lbFunction)
+                .baseUrl("http://user-service")
+                .build();
+        this.circuitBreaker = circuitBreakerFactory.create(CIRCUIT_BREAKER_ID);
+    }
+
+    public Mono<VerifiedToken> validate(String token) {
+        if (!isBase64UrlToken(token)) {
+            return Mono.error(new MalformedJwtException("Token contains characters outside base64url."));
+        }
+
+        Mono<VerifiedToken> call = webClient.post()
+                .uri(VALIDATE_TOKEN_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(Mono.fromSupplier(() -> encodeRequest(token))))
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(RemoteTokenValidator::decodeResponse);
+        return circuitBreaker.run(call, e -> Mono.error(translate(e)));
+    }
+
+    private DataBuffer encodeRequest(String token) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(BODY_PREFIX.length + token.length() + BODY_SUFFIX.length);
+        buffer.write(BODY_PREFIX);
+        buffer.write(token, StandardCharsets.US_ASCII);
+        buffer.write(BODY_SUFFIX);
+        return buffer;
+    }
+
+    // Reads TokenResponse ({"id":"42","valid":true,"role":"USER"}) field by field
+    static VerifiedToken decodeResponse(DataBuffer buffer) {
+        try (JsonParser parser = JSON_FACTORY.createParser(buffer.asInputStream())) {
+            Integer userId = null;
+            String role = null;
+            boolean valid = false;
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Token validation response is not a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> userId = Integer.valueOf(parser.getValueAsString());
+                    case "valid" -> valid = parser.getValueAsBoolean();
+                    case "role" -> role = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (!valid || userId == null) {
+                throw new MalformedJwtException("user-service rejected the token.");
+            }
+            return new VerifiedToken(userId, role, null, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable token validation response.", e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    // A rejected token stays a client error; anything else means user-service could not answer
+    private static Throwable translate(Throwable e) {
+        if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            return e;
+        }
+        if (e instanceof WebClientResponseException || e instanceof WebClientRequestException
+                || e instanceof TimeoutException || e instanceof CallNotPermittedException) {
+            return new UserServiceUnavailableException("user-service could not validate the token.", e);
+        }
+        return e;
+    }
+
+    static boolean isBase64UrlToken(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            boolean allowed = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return !token.isEmpty();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.apigateway.filter;
+
+public class RevokedTokenException extends RuntimeException {
+    public RevokedTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.apigateway.filter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the coupon policies coupon-service has flagged sold out. Follows the
+ * {@code coupon:sold-out} channel ({@code +id} / {@code -id}) and re-reads the set of the same name
+ * periodically, so a missed message costs at most one resync interval.
+ */
+@Slf4j
+@Component
+public class SoldOutPolicies {
+
+    private static final String SOLD_OUT_KEY = "coupon:sold-out";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Duration resyncInterval;
+    private final Set<Long> soldOut = ConcurrentHashMap.newKeySet();
+    private Disposable subscription;
+    private Disposable resync;
+
+    public SoldOutPolicies(
+            ReactiveStringRedisTemplate redisTemplate,
+            @Value("${gateway.sold-out.resync-interval-millis:10000}") long resyncIntervalMillis
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.resyncInterval = Duration.ofMillis(resyncIntervalMillis);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        subscription = redisTemplate.listenToChannel(SOLD_OUT_KEY)
+                .doOnNext(message -> apply(message.getMessage()))
+                .onErrorContinue((e, message) -> log.error("Failed to handle sold-out message: {}", message, e))
+                .subscribe();
+        resync = Flux.interval(Duration.ZERO, resyncInterval)
+                .concatMap(tick -> redisTemplate.opsForSet().members(SOLD_OUT_KEY)
+                        .collectList()
+                        .doOnNext(members -> {
+                            Set<Long> current = new HashSet<>();
+                            members.forEach(member -> current.add(Long.valueOf(member)));
+                            soldOut.retainAll(current);
+                            soldOut.addAll(current);
+                        })
+                        .onErrorResume(e -> {
+                            log.error("Failed to resync sold-out coupon policies", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        if (resync != null) {
+            resync.dispose();
+        }
+    }
+
+    public boolean isSoldOut(Long policyId) {
+        return soldOut.contains(policyId);
+    }
+
+    private void apply(String message) {
+        Long policyId = Long.valueOf(message.substring(1));
+        if (message.charAt(0) == '+') {
+            soldOut.add(policyId);
+        } else {
+            soldOut.remove(policyId);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * Applies the {@link RateLimitRules} limit for the route, path and caller's role. Place it after
+ * {@code JwtAuthentication} so the user id and role headers are set.
+ * <p>
+ * Requests are counted against a local token bucket first; only those it admits reach the shared
+ * Redis bucket, so a client far over its limit is turned away without a Redis call.
+ */
+@Slf4j
+@Component
+public class TieredRateLimitFilter extends AbstractGatewayFilterFactory<TieredRateLimitFilter.Config> {
+
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    private final RateLimitRules rateLimitRules;
+    private final RedisRateLimiter redisRateLimiter;
+    private final Cache<String, LocalTokenBucket> localBuckets;
+
+    public TieredRateLimitFilter(RateLimitRules rateLimitRules,
+                                 RedisRateLimiter redisRateLimiter,
+                                 RateLimitProperties rateLimitProperties) {
+        super(Config.class);
+        this.rateLimitRules = rateLimitRules;
+        this.redisRateLimiter = redisRateLimiter;
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getLocalBucketMaximumSize())
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            HttpHeaders headers = exchange.getRequest().getHeaders();
+            String userId = headers.getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+            String role = userId != null ? headers.getFirst(JwtAuthenticationFilter.USER_ROLE_HEADER) : null;
+            RateLimitRules.RateLimit limit = rateLimitRules.resolve(exchange, role);
+            String key = limit.policy() + ":" + (userId != null ? "user:" + userId : "ip:" + clientAddress(exchange));
+
+            long now = System.nanoTime();
+            LocalTokenBucket localBucket = localBuckets.get(key, k -> new LocalTokenBucket(limit, now));
+            if (!localBucket.tryAcquire(limit, now)) {
+                return reject(exchange);
+            }
+
+            return redisRateLimiter.isAllowed(limit.configId(), key)
+                    .flatMap(response -> {
+                        response.getHeaders().forEach(exchange.getResponse().getHeaders()::add);
+                        if (response.isAllowed()) {
+                            return chain.filter(exchange);
+                        }
+                        localBucket.drain();
+                        return reject(exchange);
+                    });
+        };
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        return exchange.getResponse().setComplete();
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+
+    public static class Config {
+        // Limits come from gateway.rate-limit
+    }
+}
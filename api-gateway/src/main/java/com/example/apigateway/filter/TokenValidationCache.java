@@ -0,0 +1,146 @@
+package com.example.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Caches validated tokens by SHA-256 hash until they expire, so a token is validated once per
+ * gateway instance rather than on every request.
+ * <p>
+ * user-service records revocations in Redis ({@code auth:revoked:token:{hash}} for a logout,
+ * {@code auth:revoked:user:{id}} holding the revocation time in epoch milliseconds for a password
+ * change, which refuses tokens issued strictly before it) and announces
+ * them on {@code auth:token-revocations}. Announcements evict matching entries here; the Redis
+ * keys are checked whenever a token is validated, so an evicted token cannot come back.
+ */
+@Slf4j
+@Component
+public class TokenValidationCache {
+
+    private static final String REVOCATION_CHANNEL = "auth:token-revocations";
+    private static final String REVOKED_TOKEN_KEY = "auth:revoked:token:";
+    private static final String REVOKED_USER_KEY = "auth:revoked:user:";
+    private static final String TOKEN_MESSAGE_PREFIX = "token:";
+    private static final String USER_MESSAGE_PREFIX = "user:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final AsyncCache<String, VerifiedToken> cache;
+    private Disposable revocationSubscription;
+
+    public TokenValidationCache(
+            ReactiveStringRedisTemplate redisTemplate,
+            @Value("${gateway.token-cache.maximum-size:100000}") long maximumSize,
+            @Value("${gateway.token-cache.remote-ttl-seconds:300}") long remoteTtlSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(Duration.ofSeconds(remoteTtlSeconds)))
+                .buildAsync();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        revocationSubscription = redisTemplate.listenToChannel(REVOCATION_CHANNEL)
+                .doOnNext(message -> evict(message.getMessage()))
+                .onErrorContinue((e, message) -> log.error("Failed to handle token revocation: {}", message, e))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (revocationSubscription != null) {
+            revocationSubscription.dispose();
+        }
+    }
+
+    /**
+     * Returns the validated token, validating it with {@code validator} on a miss.
+     * Concurrent misses for the same token share a single validation, which a cancelled
+     * request does not cancel for the others.
+     */
+    public Mono<VerifiedToken> get(String token, Function<String, Mono<VerifiedToken>> validator) {
+        String tokenHash = hash(token);
+        return Mono.fromFuture(() -> cache.get(tokenHash, (key, executor) ->
+                        validator.apply(token)
+                                .flatMap(verifiedToken -> checkNotRevoked(tokenHash, verifiedToken))
+                                .toFuture()), true);
+    }
+
+    private Mono<VerifiedToken> checkNotRevoked(String tokenHash, VerifiedToken verifiedToken) {
+        return redisTemplate.opsForValue()
+                .multiGet(List.of(REVOKED_TOKEN_KEY + tokenHash, REVOKED_USER_KEY + verifiedToken.userId()))
+                .flatMap(values -> {
+                    if (values.get(0) != null) {
+                        return Mono.error(new RevokedTokenException("Token has been revoked."));
+                    }
+                    // Without an issue time the token may predate the revocation, so it is refused
+                    String revokedAt = values.get(1);
+                    if (revokedAt != null && (verifiedToken.issuedAt() == null
+                            || verifiedToken.issuedAt().toEpochMilli() < Long.parseLong(revokedAt))) {
+                        return Mono.error(new RevokedTokenException("Token was issued before the user's tokens were revoked."));
+                    }
+                    return Mono.just(verifiedToken);
+                });
+    }
+
+    private void evict(String message) {
+        if (message.startsWith(TOKEN_MESSAGE_PREFIX)) {
+            cache.synchronous().invalidate(message.substring(TOKEN_MESSAGE_PREFIX.length()));
+        } else if (message.startsWith(USER_MESSAGE_PREFIX)) {
+            Integer userId = Integer.valueOf(message.substring(USER_MESSAGE_PREFIX.length()));
+            cache.synchronous().asMap().values().removeIf(verifiedToken -> userId.equals(verifiedToken.userId()));
+        } else {
+            log.warn("Ignoring unknown token revocation message: {}", message);
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    // Locally verified tokens live until their own expiry; remote results get a fixed TTL
+    private record TokenExpiry(Duration remoteTtl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return remoteTtl.toNanos();
+            }
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.apigateway.filter;
+
+public class UnknownKeyIdException extends RuntimeException {
+    public UnknownKeyIdException(String keyId) {
+        super("Unknown JWT key id: " + keyId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.apigateway.filter;
+
+public class UserServiceUnavailableException extends RuntimeException {
+
+    public UserServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.apigateway.filter;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a successful token validation. {@code issuedAt} and {@code expiresAt} are null
+ * when user-service validated the token, because its response does not carry them.
+ */
+public record VerifiedToken(Integer userId, String role, Instant issuedAt, Instant expiresAt) {
+}
@@ -0,0 +1,222 @@
+package com.example.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Per-policy queue in front of coupon issuance.
+ * <p>
+ * Each user draws one ticket from {@code waiting-room:{policyId}:seq}. An admission frontier in
+ * {@code waiting-room:{policyId}:frontier} advances at {@code admit-per-second}, computed from
+ * Redis time so every gateway instance admits against the same budget; tickets at or below the
+ * frontier may proceed. Once coupon-service flags the policy sold out ({@link SoldOutPolicies})
+ * everyone is turned away without reaching Redis or coupon-service.
+ * <p>
+ * Waiting users get a position token signed with {@code gateway.waiting-room.secret}, a key of its
+ * own, so polling needs no ticket lookup and reads only the frontier, which is cached here for
+ * {@code frontier-cache-millis}.
+ */
+@Component
+public class WaitingRoom {
+
+    private static final String KEY_PREFIX = "waiting-room:{";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final int MIN_SECRET_BYTES = 32;
+
+    // Advances the frontier by whole tickets since 'at', banking at most 'burst' tickets while idle
+    private static final String ADVANCE_FUNCTION = """
+            local function advance(seqKey, frontierKey, rate, burst, now)
+                local seq = tonumber(redis.call('GET', seqKey) or '0')
+                local state = redis.call('HMGET', frontierKey, 'admitted', 'at')
+                local admitted = tonumber(state[1] or burst)
+                local at = tonumber(state[2] or now)
+                local steps = math.floor((now - at) * rate / 1000)
+                admitted = admitted + steps
+                at = at + math.floor(steps * 1000 / rate)
+                if admitted >= seq + burst then
+                    admitted = seq + burst
+                    at = now
+                end
+                redis.call('HSET', frontierKey, 'admitted', admitted, 'at', at)
+                return admitted
+            end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            """;
+
+    // KEYS[1] = seq, KEYS[2] = tickets, KEYS[3] = frontier
+    // ARGV[1] = user id, ARGV[2] = admits per second, ARGV[3] = burst, ARGV[4] = ttl millis
+    private static final RedisScript<List> ENTER_SCRIPT = RedisScript.of(ADVANCE_FUNCTION + """
+            local ticket = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0')
+            if ticket == 0 then
+                ticket = redis.call('INCR', KEYS[1])
+                redis.call('HSET', KEYS[2], ARGV[1], ticket)
+            end
+            local admitted = advance(KEYS[1], KEYS[3], tonumber(ARGV[2]), tonumber(ARGV[3]), now)
+            for i = 1, 3 do
+                redis.call('PEXPIRE', KEYS[i], ARGV[4])
+            end
+            return {ticket, admitted}
+            """, List.class);
+
+    // KEYS[1] = seq, KEYS[2] = frontier
+    // ARGV[1] = admits per second, ARGV[2] = burst
+    private static final RedisScript<Long> FRONTIER_SCRIPT = RedisScript.of(ADVANCE_FUNCTION + """
+            return advance(KEYS[1], KEYS[2], tonumber(ARGV[1]), tonumber(ARGV[2]), now)
+            """, Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final SoldOutPolicies soldOutPolicies;
+    private final byte[] secret;
+    private final long admitsPerSecond;
+    private final long burst;
+    private final long ttlMillis;
+    private final AsyncLoadingCache<Long, Long> frontiers;
+
+    public WaitingRoom(
+            ReactiveStringRedisTemplate redisTemplate,
+            SoldOutPolicies soldOutPolicies,
+            @Value("${gateway.waiting-room.secret}") String secret,
+            @Value("${gateway.waiting-room.admit-per-second:200}") long admitsPerSecond,
+            @Value("${gateway.waiting-room.burst:200}") long burst,
+            @Value("${gateway.waiting-room.ttl-hours:24}") long ttlHours,
+            @Value("${gateway.waiting-room.frontier-cache-millis:100}") long frontierCacheMillis
+    ) {
+        if (secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("gateway.waiting-room.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.redisTemplate = redisTemplate;
+        this.soldOutPolicies = soldOutPolicies;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.admitsPerSecond = admitsPerSecond;
+        this.burst = burst;
+        this.ttlMillis = Duration.ofHours(ttlHours).toMillis();
+        this.frontiers = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(frontierCacheMillis))
+                .buildAsync((policyId, executor) -> loadFrontier(policyId).toFuture());
+    }
+
+    /**
+     * Queues the user for the policy, or finds their existing ticket, and reports whether they
+     * may proceed to issuance now.
+     */
+    public Mono<Admission> enter(Long policyId, Long userId) {
+        if (soldOutPolicies.isSoldOut(policyId)) {
+            return Mono.just(Admission.soldOut(policyId));
+        }
+        return redisTemplate.execute(ENTER_SCRIPT,
+                        List.of(key(policyId, "seq"), key(policyId, "tickets"), key(policyId, "frontier")),
+                        List.of(String.valueOf(userId), String.valueOf(admitsPerSecond),
+                                String.valueOf(burst), String.valueOf(ttlMillis)))
+                .next()
+                .map(result -> {
+                    long ticket = ((Number) result.get(0)).longValue();
+                    long admitted = ((Number) result.get(1)).longValue();
+                    return admission(policyId, userId, ticket, admitted);
+                });
+    }
+
+    /**
+     * Current standing of a position token. Invalid tokens yield an empty result.
+     */
+    public Mono<Admission> position(String token) {
+        long[] position = decodeToken(token);
+        if (position == null) {
+            return Mono.empty();
+        }
+        long policyId = position[0];
+        if (soldOutPolicies.isSoldOut(policyId)) {
+            return Mono.just(Admission.soldOut(policyId));
+        }
+        return Mono.fromFuture(frontiers.get(policyId), true)
+                .map(admitted -> admission(policyId, position[1], position[2], admitted));
+    }
+
+    private Admission admission(long policyId, long userId, long ticket, long admitted) {
+        if (ticket <= admitted) {
+            return new Admission(Status.ADMITTED, policyId, 0, 0, null);
+        }
+        long ahead = ticket - admitted;
+        long retryAfterMillis = Math.max(100, ahead * 1000 / admitsPerSecond);
+        return new Admission(Status.WAITING, policyId, ahead, retryAfterMillis, encodeToken(policyId, userId, ticket));
+    }
+
+    private Mono<Long> loadFrontier(Long policyId) {
+        return redisTemplate.execute(FRONTIER_SCRIPT,
+                        List.of(key(policyId, "seq"), key(policyId, "frontier")),
+                        List.of(String.valueOf(admitsPerSecond), String.valueOf(burst)))
+                .next();
+    }
+
+    // The hash tag keeps a policy's queue keys in one cluster slot for the scripts
+    private static String key(Long policyId, String suffix) {
+        return KEY_PREFIX + policyId + "}:" + suffix;
+    }
+
+    String encodeToken(long policyId, long userId, long ticket) {
+        byte[] payload = (policyId + ":" + userId + ":" + ticket).getBytes(StandardCharsets.US_ASCII);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(payload));
+    }
+
+    // Returns {policyId, userId, ticket}, or null if the token is malformed or not signed by us
+    long[] decodeToken(String token) {
+        try {
+            int separator = token.indexOf('.');
+            if (separator < 0) {
+                return null;
+            }
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(token.substring(0, separator));
+            byte[] signature = decoder.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            String[] parts = new String(payload, StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 3) {
+                return null;
+            }
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2])};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available.", e);
+        }
+    }
+
+    public enum Status {
+        ADMITTED,
+        WAITING,
+        SOLD_OUT
+    }
+
+    public record Admission(Status status, Long policyId, long position, long retryAfterMillis, String token) {
+
+        static Admission soldOut(Long policyId) {
+            return new Admission(Status.SOLD_OUT, policyId, 0, 0, null);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Holds issuance requests in the {@link WaitingRoom}. Admitted users are forwarded; waiting users
+ * get 429 with their position token and a Retry-After hint, and poll
+ * {@code /waiting-room/position} until admitted; once the policy is sold out requests end with 410.
+ * Place it after {@code JwtAuthentication}, since the queue is per user.
+ */
+@Slf4j
+@Component
+public class WaitingRoomFilter extends AbstractGatewayFilterFactory<WaitingRoomFilter.Config> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final WaitingRoom waitingRoom;
+    private final ObjectMapper objectMapper;
+
+    public WaitingRoomFilter(WaitingRoom waitingRoom, ObjectMapper objectMapper) {
+        super(Config.class);
+        this.waitingRoom = waitingRoom;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            String userId = exchange.getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+            if (userId == null) {
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                return exchange.getResponse().setComplete();
+            }
+
+            // The body is cached so it can still be forwarded after reading the policy id
+            return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, request -> {
+                ServerWebExchange cachedExchange = exchange.mutate().request(request).build();
+                Long policyId = readPolicyId(exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR));
+                if (policyId == null) {
+                    exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+                    return exchange.getResponse().setComplete();
+                }
+
+                return waitingRoom.enter(policyId, Long.valueOf(userId))
+                        .map(Optional::of)
+                        .onErrorResume(e -> {
+                            log.error("Waiting room unavailable: policyId={}", policyId, e);
+                            return Mono.just(Optional.empty());
+                        })
+                        .flatMap(admission -> {
+                            if (admission.isEmpty()) {
+                                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                                return exchange.getResponse().setComplete();
+                            }
+                            return switch (admission.get().status()) {
+                                case ADMITTED -> chain.filter(cachedExchange);
+                                case WAITING -> respond(exchange, HttpStatus.TOO_MANY_REQUESTS, admission.get());
+                                case SOLD_OUT -> respond(exchange, HttpStatus.GONE, admission.get());
+                            };
+                        });
+            });
+        };
+    }
+
+    private Mono<Void> respond(ServerWebExchange exchange, HttpStatus status, WaitingRoom.Admission admission) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (admission.retryAfterMillis() > 0) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, (admission.retryAfterMillis() + 999) / 1000)));
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(admission);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    // Reads couponPolicyId from the issue request body without consuming the cached buffer
+    static Long readPolicyId(DataBuffer body) {
+        if (body == null) {
+            return null;
+        }
+        String json = body.toString(body.readPosition(), body.readableByteCount(), StandardCharsets.UTF_8);
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("couponPolicyId".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    return parser.getLongValue();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static class Config {
+        // Queue settings come from gateway.waiting-room
+    }
+}
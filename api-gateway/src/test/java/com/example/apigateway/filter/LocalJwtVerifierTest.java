@@ -0,0 +1,86 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.config.JwtProperties;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalJwtVerifierTest {
+
+    private static final String SECRET = "SpringBootPromotionServiceWithRedisAndKafka";
+    private static final String ROTATED_SECRET = "RotatedPromotionServiceSigningKeyForTests!";
+
+    private LocalJwtVerifier localJwtVerifier;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setKeys(Map.of("2026-10", ROTATED_SECRET));
+        localJwtVerifier = new LocalJwtVerifier(jwtProperties);
+    }
+
+    @Test
+    @DisplayName("Verify - Token Without Key Id Uses The Shared Secret")
+    void verify_DefaultKey() {
+        assertThat(localJwtVerifier.verify(token(null, SECRET)).userId()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Verify - Token With Known Key Id Uses The Rotated Key")
+    void verify_RotatedKey() {
+        assertThat(localJwtVerifier.verify(token("2026-10", ROTATED_SECRET)).userId()).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Verify - Issue Time Keeps Millisecond Precision")
+    void verify_MillisecondIssueTime() {
+        // Given
+        String token = Jwts.builder()
+                .subject("42")
+                .claim("iat_ms", 1760000000123L)
+                .issuedAt(new Date(1760000000123L))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When & Then
+        assertThat(localJwtVerifier.verify(token).issuedAt()).isEqualTo(Instant.ofEpochMilli(1760000000123L));
+    }
+
+    @Test
+    @DisplayName("Verify Fail - Unknown Key Id")
+    void verify_Fail_UnknownKeyId() {
+        assertThatThrownBy(() -> localJwtVerifier.verify(token("2027-01", ROTATED_SECRET)))
+                .isInstanceOf(UnknownKeyIdException.class)
+                .hasMessage("Unknown JWT key id: 2027-01");
+    }
+
+    @Test
+    @DisplayName("Verify Fail - Wrong Signature")
+    void verify_Fail_WrongSignature() {
+        assertThatThrownBy(() -> localJwtVerifier.verify(token(null, ROTATED_SECRET)))
+                .isInstanceOf(JwtException.class);
+    }
+
+    private String token(String keyId, String secret) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("42")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 3600000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.apigateway.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketTest {
+
+    private static final RateLimitRules.RateLimit LIMIT =
+            new RateLimitRules.RateLimit("issue", "USER", "rate-limit:issue:USER", 1, 2, 1);
+
+    @Test
+    @DisplayName("Try Acquire - Burst Then Refill At The Replenish Rate")
+    void tryAcquire() {
+        // Given
+        LocalTokenBucket bucket = new LocalTokenBucket(LIMIT, 0);
+
+        // When & Then
+        assertThat(bucket.tryAcquire(LIMIT, 0)).isTrue();
+        assertThat(bucket.tryAcquire(LIMIT, 0)).isTrue();
+        assertThat(bucket.tryAcquire(LIMIT, 0)).isFalse();
+        assertThat(bucket.tryAcquire(LIMIT, 1_000_000_000L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Try Acquire - Changed Limit Starts A Full Bucket")
+    void tryAcquire_LimitChanged() {
+        // Given
+        LocalTokenBucket bucket = new LocalTokenBucket(LIMIT, 0);
+        bucket.drain();
+        RateLimitRules.RateLimit raised = new RateLimitRules.RateLimit("issue", "USER", "rate-limit:issue:USER", 5, 10, 1);
+
+        // When & Then
+        assertThat(bucket.tryAcquire(LIMIT, 0)).isFalse();
+        assertThat(bucket.tryAcquire(raised, 0)).isTrue();
+    }
+}
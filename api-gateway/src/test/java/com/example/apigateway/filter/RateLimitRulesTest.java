@@ -0,0 +1,95 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitRulesTest {
+
+    private RateLimitProperties rateLimitProperties;
+    private RedisRateLimiter redisRateLimiter;
+    private RateLimitRules rateLimitRules;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setPolicies(Map.of(
+                "issue", Map.of("USER", limit(1, 2), "VIP", limit(5, 10)),
+                "read", Map.of("default", limit(50, 100))));
+        rateLimitProperties.setRules(List.of(
+                rule("/api/v3/coupons/issue", "POST", "issue"),
+                rule("/api/**", "GET", "read")));
+        redisRateLimiter = new RedisRateLimiter(10, 20);
+        rateLimitRules = new RateLimitRules(rateLimitProperties, redisRateLimiter);
+        rateLimitRules.load();
+    }
+
+    @Test
+    @DisplayName("Resolve - Issue Route Is Tiered By Role")
+    void resolve_IssueTiers() {
+        // When
+        RateLimitRules.RateLimit user = rateLimitRules.resolve(exchange(MockServerHttpRequest.post("/api/v3/coupons/issue")), "USER");
+        RateLimitRules.RateLimit vip = rateLimitRules.resolve(exchange(MockServerHttpRequest.post("/api/v3/coupons/issue")), "VIP");
+
+        // Then
+        assertThat(user.burstCapacity()).isEqualTo(2);
+        assertThat(vip.burstCapacity()).isEqualTo(10);
+        assertThat(redisRateLimiter.getConfig().get(vip.configId()).getReplenishRate()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Resolve - Unlisted Role And Anonymous Fall Back To The Policy Default")
+    void resolve_DefaultTier() {
+        // When
+        RateLimitRules.RateLimit read = rateLimitRules.resolve(exchange(MockServerHttpRequest.get("/api/v1/coupons/1")), null);
+        RateLimitRules.RateLimit unmatched = rateLimitRules.resolve(exchange(MockServerHttpRequest.delete("/api/v1/coupons/1")), "USER");
+
+        // Then
+        assertThat(read.policy()).isEqualTo("read");
+        assertThat(read.replenishRate()).isEqualTo(50);
+        assertThat(unmatched.policy()).isEqualTo("default");
+        assertThat(unmatched.replenishRate()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Reload - Invalid Rules Keep The Previous Ones")
+    void reload_Invalid() {
+        // Given
+        rateLimitProperties.setRules(List.of(rule("/api/**", "GET", "missing")));
+
+        // When
+        rateLimitRules.reload();
+
+        // Then
+        assertThat(rateLimitRules.resolve(exchange(MockServerHttpRequest.get("/api/v1/coupons/1")), null).policy())
+                .isEqualTo("read");
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private static RateLimitProperties.Limit limit(int replenishRate, int burstCapacity) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setReplenishRate(replenishRate);
+        limit.setBurstCapacity(burstCapacity);
+        return limit;
+    }
+
+    private static RateLimitProperties.Rule rule(String path, String method, String policy) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPath(path);
+        rule.setMethods(List.of(method));
+        rule.setPolicy(policy);
+        return rule;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.apigateway.filter;
+
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RemoteTokenValidatorTest {
+
+    @Test
+    @DisplayName("Decode Response - Reads User Id And Skips Unknown Fields")
+    void decodeResponse() {
+        // Given
+        DataBuffer buffer = buffer("{\"id\":\"42\",\"extra\":{\"nested\":[1,2]},\"valid\":true,\"role\":\"USER\"}");
+
+        // When
+        VerifiedToken verifiedToken = RemoteTokenValidator.decodeResponse(buffer);
+
+        // Then
+        assertThat(verifiedToken.userId()).isEqualTo(42);
+        assertThat(verifiedToken.expiresAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("Decode Response Fail - Token Not Valid")
+    void decodeResponse_Fail_NotValid() {
+        // When & Then
+        assertThatThrownBy(() -> RemoteTokenValidator.decodeResponse(buffer("{\"id\":\"42\",\"valid\":false}")))
+                .isInstanceOf(MalformedJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Is Base64Url Token - Rejects Characters That Would Break The JSON Body")
+    void isBase64UrlToken() {
+        assertThat(RemoteTokenValidator.isBase64UrlToken("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiI0MiJ9.a-b_c")).isTrue();
+        assertThat(RemoteTokenValidator.isBase64UrlToken("abc\",\"id\":\"1")).isFalse();
+        assertThat(RemoteTokenValidator.isBase64UrlToken("")).isFalse();
+    }
+
+    private static DataBuffer buffer(String json) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.apigateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenValidationCacheTest {
+
+    private static final String CHANNEL = "auth:token-revocations";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private final Sinks.Many<ReactiveSubscription.Message<String, String>> revocations =
+            Sinks.many().multicast().onBackpressureBuffer();
+    private final AtomicInteger validations = new AtomicInteger();
+    private TokenValidationCache tokenValidationCache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().doReturn(revocations.asFlux()).when(redisTemplate).listenToChannel(CHANNEL);
+        tokenValidationCache = new TokenValidationCache(redisTemplate, 1000, 300);
+        tokenValidationCache.subscribe();
+    }
+
+    @Test
+    @DisplayName("Get - Token Issued Later In The Same Second As The Revocation Stays Valid")
+    void get_IssuedAfterRevocation() {
+        // Given
+        givenRevocation(null, "1760000000100");
+
+        // When
+        VerifiedToken verifiedToken = tokenValidationCache.get("token", validator(1, 1760000000400L)).block();
+
+        // Then
+        assertThat(verifiedToken.userId()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Get Fail - Token Issued Before The User's Revocation")
+    void get_Fail_IssuedBeforeRevocation() {
+        // Given
+        givenRevocation(null, "1760000000100");
+
+        // When & Then
+        StepVerifier.create(tokenValidationCache.get("token", validator(1, 1760000000099L)))
+                .expectError(RevokedTokenException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Get Fail - Revoked Token")
+    void get_Fail_RevokedToken() {
+        // Given
+        givenRevocation("1", null);
+
+        // When & Then
+        StepVerifier.create(tokenValidationCache.get("token", validator(1, System.currentTimeMillis())))
+                .expectError(RevokedTokenException.class)
+                .verify();
+        verify(valueOperations).multiGet(List.of(
+                "auth:revoked:token:" + TokenValidationCache.hash("token"), "auth:revoked:user:1"));
+    }
+
+    @Test
+    @DisplayName("Subscribe - User Revocation Evicts Only That User's Tokens")
+    void subscribe_UserRevocationEvicts() {
+        // Given
+        givenRevocation(null, null);
+        long now = System.currentTimeMillis();
+        tokenValidationCache.get("token-1", validator(1, now)).block();
+        tokenValidationCache.get("token-2", validator(2, now)).block();
+
+        // When
+        revocations.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(CHANNEL, "user:1"));
+        tokenValidationCache.get("token-1", validator(1, now)).block();
+        tokenValidationCache.get("token-2", validator(2, now)).block();
+
+        // Then
+        assertThat(validations.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Subscribe - Token Revocation Evicts That Token")
+    void subscribe_TokenRevocationEvicts() {
+        // Given
+        givenRevocation(null, null);
+        long now = System.currentTimeMillis();
+        tokenValidationCache.get("token", validator(1, now)).block();
+        tokenValidationCache.get("token", validator(1, now)).block();
+
+        // When
+        revocations.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(CHANNEL,
+                "token:" + TokenValidationCache.hash("token")));
+        tokenValidationCache.get("token", validator(1, now)).block();
+
+        // Then
+        assertThat(validations.get()).isEqualTo(2);
+    }
+
+    private void givenRevocation(String revokedToken, String revokedAt) {
+        when(valueOperations.multiGet(anyList())).thenReturn(Mono.just(Arrays.asList(revokedToken, revokedAt)));
+    }
+
+    private Function<String, Mono<VerifiedToken>> validator(Integer userId, long issuedAtMillis) {
+        return token -> Mono.fromSupplier(() -> {
+            validations.incrementAndGet();
+            return new VerifiedToken(userId, "USER", Instant.ofEpochMilli(issuedAtMillis),
+                    Instant.now().plus(Duration.ofHours(1)));
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.apigateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WaitingRoomTest {
+
+    private static final String SECRET = "SpringBootPromotionServiceWithRedisAndKafka";
+
+    private WaitingRoom waitingRoom;
+
+    @BeforeEach
+    void setUp() {
+        waitingRoom = new WaitingRoom(null, null, SECRET, 200, 200, 24, 100);
+    }
+
+    @Test
+    @DisplayName("Position Token - Round Trip")
+    void positionToken_RoundTrip() {
+        // When
+        String token = waitingRoom.encodeToken(7L, 42L, 1234L);
+
+        // Then
+        assertThat(waitingRoom.decodeToken(token)).containsExactly(7L, 42L, 1234L);
+    }
+
+    @Test
+    @DisplayName("Position Token Fail - Tampered Or Signed With Another Secret")
+    void positionToken_Fail_Tampered() {
+        // Given
+        String token = waitingRoom.encodeToken(7L, 42L, 1234L);
+        String forged = new WaitingRoom(null, null, "AnotherGatewaySecretThatIsLongEnough!!", 200, 200, 24, 100)
+                .encodeToken(7L, 42L, 1L);
+        String swapped = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        // When & Then
+        assertThat(waitingRoom.decodeToken(forged)).isNull();
+        assertThat(waitingRoom.decodeToken(swapped)).isNull();
+        assertThat(waitingRoom.decodeToken("not-a-token")).isNull();
+    }
+
+    @Test
+    @DisplayName("Create Fail - Secret Too Short")
+    void create_Fail_ShortSecret() {
+        // When & Then
+        assertThatThrownBy(() -> new WaitingRoom(null, null, "short", 200, 200, 24, 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("gateway.waiting-room.secret must be at least 32 bytes");
+    }
+
+    @Test
+    @DisplayName("Read Policy Id - Leaves The Cached Body Readable")
+    void readPolicyId() {
+        // Given
+        var body = DefaultDataBufferFactory.sharedInstance
+                .wrap("{\"other\":[1],\"couponPolicyId\":7}".getBytes(StandardCharsets.UTF_8));
+        int readable = body.readableByteCount();
+
+        // When
+        Long policyId = WaitingRoomFilter.readPolicyId(body);
+
+        // Then
+        assertThat(policyId).isEqualTo(7L);
+        assertThat(body.readableByteCount()).isEqualTo(readable);
+    }
+}
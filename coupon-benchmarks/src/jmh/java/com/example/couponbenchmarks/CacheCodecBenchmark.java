@@ -0,0 +1,131 @@
+package com.example.couponbenchmarks;
+
+import com.example.couponservice.codec.CacheFormat;
+import com.example.couponservice.codec.CouponPolicyCodec;
+import com.example.couponservice.codec.CouponStateCodec;
+import com.example.couponservice.dto.v1.CouponDto;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.CouponStatus;
+import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssuanceMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost per cache codec. The {@code bytesPerEntry} secondary result reports the
+ * average payload size written by the encode benchmarks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    @Param({"BINARY", "JSON"})
+    private CacheFormat format;
+
+    private CouponStateCodec couponStateCodec;
+    private CouponPolicyCodec couponPolicyCodec;
+    private CouponDto.Response coupon;
+    private CouponPolicy couponPolicy;
+    private byte[] couponPayload;
+    private byte[] policyPayload;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long encodedBytes;
+        public long encodedEntries;
+
+        public double bytesPerEntry() {
+            return encodedEntries == 0 ? 0 : (double) encodedBytes / encodedEntries;
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            encodedBytes = 0;
+            encodedEntries = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        couponStateCodec = new CouponStateCodec(objectMapper, format);
+        couponPolicyCodec = new CouponPolicyCodec(objectMapper, format);
+
+        LocalDateTime now = LocalDateTime.now();
+        coupon = CouponDto.Response.builder()
+                .id(123456789012345L)
+                .userId(42L)
+                .couponCode("HK3MYQA6PEENHTRM")
+                .discountType(DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .validFrom(now.minusDays(1))
+                .validUntil(now.plusDays(30))
+                .status(CouponStatus.AVAILABLE)
+                .build();
+        couponPolicy = CouponPolicy.builder()
+                .id(123456789012345L)
+                .name("Spring Sale")
+                .description("1,000 off orders over 10,000")
+                .discountType(DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100000)
+                .startTime(now.minusDays(1))
+                .endTime(now.plusDays(30))
+                .issuanceMode(IssuanceMode.SCRIPT)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        couponPayload = couponStateCodec.encode(coupon);
+        policyPayload = couponPolicyCodec.encode(couponPolicy);
+    }
+
+    @Benchmark
+    public byte[] encodeCouponState(PayloadSize payloadSize) {
+        byte[] payload = couponStateCodec.encode(coupon);
+        payloadSize.encodedBytes += payload.length;
+        payloadSize.encodedEntries++;
+        return payload;
+    }
+
+    @Benchmark
+    public CouponDto.Response decodeCouponState() {
+        return couponStateCodec.decode(couponPayload);
+    }
+
+    @Benchmark
+    public byte[] encodeCouponPolicy(PayloadSize payloadSize) {
+        byte[] payload = couponPolicyCodec.encode(couponPolicy);
+        payloadSize.encodedBytes += payload.length;
+        payloadSize.encodedEntries++;
+        return payload;
+    }
+
+    @Benchmark
+    public CouponPolicy decodeCouponPolicy() {
+        return couponPolicyCodec.decode(policyPayload);
+    }
+}
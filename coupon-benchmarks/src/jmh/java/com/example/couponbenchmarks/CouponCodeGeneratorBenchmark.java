@@ -0,0 +1,48 @@
+package com.example.couponbenchmarks;
+
+import com.example.couponservice.entity.id.CouponCodeGenerator;
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CouponCodeGenerator} with the UUID-based codes the services used to build.
+ * Run with {@code -prof gc} to see the allocation difference as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CouponCodeGeneratorBenchmark {
+
+    private final CouponCodeGenerator couponCodeGenerator = new CouponCodeGenerator(new SnowflakeIdAllocator(1));
+
+    @Benchmark
+    public String uuidShortCode() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Benchmark
+    public String uuidLongCode() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    }
+
+    @Benchmark
+    public String couponCodeGenerator() {
+        return couponCodeGenerator.generate();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.couponbenchmarks;
+
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.IssuanceMode;
+import com.example.couponservice.service.v2.CouponSoldOutRegistry;
+import com.example.couponservice.service.v2.CouponStockLeaseService;
+import com.example.couponservice.service.v2.CouponStockService;
+import com.example.couponservice.service.v2.RedisScriptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The stock decision behind one issuance, per {@link IssuanceMode}, against a local Redis.
+ * LOCK replays what {@code CouponRedisService} does under the distributed lock; the other modes
+ * go through {@link CouponStockService}. Database writes are left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class IssuanceDecisionBenchmark {
+
+    private static final String COUPON_LOCK_KEY = "coupon:lock:";
+
+    @Param({"LOCK", "SCRIPT", "SHARDED", "LEASED"})
+    private IssuanceMode issuanceMode;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private CouponStockService couponStockService;
+    private CouponStockLeaseService couponStockLeaseService;
+    private CouponPolicy couponPolicy;
+    private final AtomicLong userIds = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException, ReflectiveOperationException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+        redissonClient = Redisson.create(config);
+
+        RedisScriptService redisScriptService = new RedisScriptService(redissonClient);
+        CouponSoldOutRegistry couponSoldOutRegistry = new CouponSoldOutRegistry(redissonClient, redisScriptService);
+        couponStockLeaseService = new CouponStockLeaseService(redissonClient, redisScriptService, couponSoldOutRegistry);
+        setField(couponStockLeaseService, "leaseSize", 500L);
+        setField(couponStockLeaseService, "leaseAllowance", 50L);
+        setField(couponStockLeaseService, "leaseTtlSeconds", 60L);
+        setField(couponStockLeaseService, "orphanTimeoutMillis", 15000L);
+        couponStockService = new CouponStockService(redissonClient, redisScriptService, couponStockLeaseService,
+                couponSoldOutRegistry);
+
+        couponPolicy = CouponPolicy.builder()
+                .id(1L)
+                .totalQuantity(Integer.MAX_VALUE)
+                .issuanceMode(issuanceMode)
+                .shardCount(8)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        couponStockService.initializeQuantity(couponPolicy);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        couponStockLeaseService.returnAllLeases();
+        redissonClient.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public long issue() throws InterruptedException {
+        if (issuanceMode == IssuanceMode.LOCK) {
+            return issueWithLock();
+        }
+        return couponStockService.decreaseQuantity(couponPolicy, userIds.incrementAndGet());
+    }
+
+    private long issueWithLock() throws InterruptedException {
+        RLock lock = redissonClient.getLock(COUPON_LOCK_KEY + couponPolicy.getId());
+        if (!lock.tryLock(3, 5, TimeUnit.SECONDS)) {
+            return -1;
+        }
+        try {
+            couponPolicy.isValidPeriod();
+            return couponStockService.decreaseQuantity(couponPolicy, userIds.incrementAndGet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The lease service reads its sizes from @Value fields, which nothing injects outside Spring
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.couponbenchmarks;
+
+import com.example.couponservice.dto.v1.CouponDto;
+import com.example.couponservice.entity.Coupon;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.DiscountType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping done on every issue/use/cancel call and every state cache write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private Coupon coupon;
+
+    @Setup
+    public void setUp() {
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(1L)
+                .name("Spring Sale")
+                .discountType(DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100000)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(30))
+                .build();
+        coupon = Coupon.builder()
+                .id(123456789012345L)
+                .couponPolicy(couponPolicy)
+                .userId(42L)
+                .couponCode("HK3MYQA6PEENHTRM")
+                .build();
+    }
+
+    @Benchmark
+    public CouponDto.Response couponResponseV1() {
+        return CouponDto.Response.from(coupon);
+    }
+
+    @Benchmark
+    public com.example.couponservice.dto.v3.CouponDto.CouponResponse couponResponseV3() {
+        return com.example.couponservice.dto.v3.CouponDto.CouponResponse.from(coupon);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.couponbenchmarks;
+
+import com.example.couponservice.entity.Coupon;
+import com.example.couponservice.entity.CouponPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Period checks run on every issuance and redemption; both read the wall clock through
+ * {@link LocalDateTime#now()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidityCheckBenchmark {
+
+    private CouponPolicy couponPolicy;
+    private Coupon coupon;
+
+    @Setup
+    public void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(1L)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(30))
+                .build();
+        coupon = Coupon.builder()
+                .id(1L)
+                .couponPolicy(couponPolicy)
+                .userId(42L)
+                .build();
+    }
+
+    @Benchmark
+    public boolean policyIsValidPeriod() {
+        return couponPolicy.isValidPeriod();
+    }
+
+    @Benchmark
+    public boolean couponIsExpired() {
+        return coupon.isExpired();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.couponservice.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reads values in the order and encoding written by {@link BinaryPayloadWriter}.
+ */
+public class BinaryPayloadReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    public BinaryPayloadReader(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        this.position = offset;
+    }
+
+    public Long readLong() {
+        return readPresence() ? readVarLong() : null;
+    }
+
+    public Integer readInt() {
+        return readPresence() ? Math.toIntExact(readVarLong()) : null;
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int ordinal = (int) readUnsignedVarLong();
+        if (ordinal == 0) {
+            return null;
+        }
+        if (ordinal > values.length) {
+            throw new IllegalArgumentException("Unknown enum ordinal in cache payload: " + (ordinal - 1));
+        }
+        return values[ordinal - 1];
+    }
+
+    public String readString() {
+        int length = (int) readUnsignedVarLong();
+        if (length == 0) {
+            return null;
+        }
+        length--;
+        checkAvailable(length);
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public LocalDateTime readDateTime() {
+        if (!readPresence()) {
+            return null;
+        }
+        long epochSecond = readVarLong();
+        int nano = (int) readUnsignedVarLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    private boolean readPresence() {
+        checkAvailable(1);
+        return bytes[position++] != 0;
+    }
+
+    private long readVarLong() {
+        long value = readUnsignedVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readUnsignedVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            checkAvailable(1);
+            byte b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in cache payload.");
+    }
+
+    private void checkAvailable(int length) {
+        if (position + length > bytes.length) {
+            throw new IllegalArgumentException("Truncated cache payload.");
+        }
+    }
+}
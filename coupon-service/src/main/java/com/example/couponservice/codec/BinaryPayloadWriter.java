@@ -0,0 +1,91 @@
+package com.example.couponservice.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Growable buffer for binary cache payloads. Integers are zigzag varints, so small values take
+ * one or two bytes; nullable values carry a one-byte presence flag. Instances are reused per
+ * thread, so only the final {@link #toByteArray()} copy is allocated per payload.
+ */
+public class BinaryPayloadWriter {
+
+    private byte[] buffer = new byte[128];
+    private int position;
+
+    public BinaryPayloadWriter reset() {
+        position = 0;
+        return this;
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeLong(Long value) {
+        if (writePresence(value)) {
+            writeVarLong(value);
+        }
+    }
+
+    public void writeInt(Integer value) {
+        if (writePresence(value)) {
+            writeVarLong(value);
+        }
+    }
+
+    // Ordinals are part of the binary layout: reordering an enum needs a new version byte
+    public void writeEnum(Enum<?> value) {
+        writeUnsignedVarLong(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeUnsignedVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsignedVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public void writeDateTime(LocalDateTime value) {
+        if (writePresence(value)) {
+            writeVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeUnsignedVarLong(value.getNano());
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private boolean writePresence(Object value) {
+        writeByte(value == null ? 0 : 1);
+        return value != null;
+    }
+
+    private void writeVarLong(long value) {
+        writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeUnsignedVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+        }
+    }
+}
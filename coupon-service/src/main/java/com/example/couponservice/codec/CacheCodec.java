@@ -0,0 +1,8 @@
+package com.example.couponservice.codec;
+
+public interface CacheCodec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+}
@@ -0,0 +1,6 @@
+package com.example.couponservice.codec;
+
+public enum CacheFormat {
+    BINARY,
+    JSON
+}
@@ -0,0 +1,71 @@
+package com.example.couponservice.codec;
+
+import com.example.couponservice.dto.v1.CouponPolicyDto;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssuanceMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class CouponPolicyCodec extends VersionedCacheCodec<CouponPolicy> {
+
+    private static final DiscountType[] DISCOUNT_TYPES = DiscountType.values();
+    private static final IssuanceMode[] ISSUANCE_MODES = IssuanceMode.values();
+
+    public CouponPolicyCodec(ObjectMapper objectMapper, @Value("${coupon.cache.codec:json}") CacheFormat format) {
+        super(objectMapper, format);
+    }
+
+    @Override
+    protected void writeBinary(CouponPolicy couponPolicy, BinaryPayloadWriter writer) {
+        writer.writeLong(couponPolicy.getId());
+        writer.writeString(couponPolicy.getName());
+        writer.writeString(couponPolicy.getDescription());
+        writer.writeEnum(couponPolicy.getDiscountType());
+        writer.writeInt(couponPolicy.getDiscountValue());
+        writer.writeInt(couponPolicy.getMinimumOrderAmount());
+        writer.writeInt(couponPolicy.getMaximumDiscountAmount());
+        writer.writeInt(couponPolicy.getTotalQuantity());
+        writer.writeDateTime(couponPolicy.getStartTime());
+        writer.writeDateTime(couponPolicy.getEndTime());
+        writer.writeEnum(couponPolicy.getIssuanceMode());
+        writer.writeInt(couponPolicy.getShardCount());
+        writer.writeDateTime(couponPolicy.getCreatedAt());
+        writer.writeDateTime(couponPolicy.getUpdatedAt());
+    }
+
+    @Override
+    protected CouponPolicy readBinary(BinaryPayloadReader reader) {
+        return CouponPolicy.builder()
+                .id(reader.readLong())
+                .name(reader.readString())
+                .description(reader.readString())
+                .discountType(reader.readEnum(DISCOUNT_TYPES))
+                .discountValue(reader.readInt())
+                .minimumOrderAmount(reader.readInt())
+                .maximumDiscountAmount(reader.readInt())
+                .totalQuantity(reader.readInt())
+                .startTime(reader.readDateTime())
+                .endTime(reader.readDateTime())
+                .issuanceMode(reader.readEnum(ISSUANCE_MODES))
+                .shardCount(reader.readInt())
+                .createdAt(reader.readDateTime())
+                .updatedAt(reader.readDateTime())
+                .build();
+    }
+
+    // The JSON layout stays the policy response, as it was before the codec existed
+    @Override
+    protected Object toJsonValue(CouponPolicy couponPolicy) {
+        return CouponPolicyDto.Response.from(couponPolicy);
+    }
+
+    @Override
+    protected CouponPolicy readJson(ObjectMapper objectMapper, byte[] bytes) throws IOException {
+        return objectMapper.readValue(bytes, CouponPolicy.class);
+    }
+}
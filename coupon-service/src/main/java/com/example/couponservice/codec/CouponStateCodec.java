@@ -0,0 +1,65 @@
+package com.example.couponservice.codec;
+
+import com.example.couponservice.dto.v1.CouponDto;
+import com.example.couponservice.enums.CouponStatus;
+import com.example.couponservice.enums.DiscountType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class CouponStateCodec extends VersionedCacheCodec<CouponDto.Response> {
+
+    private static final DiscountType[] DISCOUNT_TYPES = DiscountType.values();
+    private static final CouponStatus[] COUPON_STATUSES = CouponStatus.values();
+
+    public CouponStateCodec(ObjectMapper objectMapper, @Value("${coupon.cache.codec:json}") CacheFormat format) {
+        super(objectMapper, format);
+    }
+
+    @Override
+    protected void writeBinary(CouponDto.Response coupon, BinaryPayloadWriter writer) {
+        writer.writeLong(coupon.getId());
+        writer.writeLong(coupon.getUserId());
+        writer.writeString(coupon.getCouponCode());
+        writer.writeEnum(coupon.getDiscountType());
+        writer.writeInt(coupon.getDiscountValue());
+        writer.writeInt(coupon.getMinimumOrderAmount());
+        writer.writeInt(coupon.getMaximumDiscountAmount());
+        writer.writeDateTime(coupon.getValidFrom());
+        writer.writeDateTime(coupon.getValidUntil());
+        writer.writeEnum(coupon.getStatus());
+        writer.writeLong(coupon.getOrderId());
+        writer.writeDateTime(coupon.getUsedAt());
+    }
+
+    @Override
+    protected CouponDto.Response readBinary(BinaryPayloadReader reader) {
+        return CouponDto.Response.builder()
+                .id(reader.readLong())
+                .userId(reader.readLong())
+                .couponCode(reader.readString())
+                .discountType(reader.readEnum(DISCOUNT_TYPES))
+                .discountValue(reader.readInt())
+                .minimumOrderAmount(reader.readInt())
+                .maximumDiscountAmount(reader.readInt())
+                .validFrom(reader.readDateTime())
+                .validUntil(reader.readDateTime())
+                .status(reader.readEnum(COUPON_STATUSES))
+                .orderId(reader.readLong())
+                .usedAt(reader.readDateTime())
+                .build();
+    }
+
+    @Override
+    protected Object toJsonValue(CouponDto.Response coupon) {
+        return coupon;
+    }
+
+    @Override
+    protected CouponDto.Response readJson(ObjectMapper objectMapper, byte[] bytes) throws IOException {
+        return objectMapper.readValue(bytes, CouponDto.Response.class);
+    }
+}
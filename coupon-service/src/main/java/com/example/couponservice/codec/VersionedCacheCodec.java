@@ -0,0 +1,74 @@
+package com.example.couponservice.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Writes cache payloads in the configured {@link CacheFormat} and reads either format back.
+ * <p>
+ * Binary payloads start with a version byte; JSON payloads are stored as-is and recognised by
+ * their opening brace. Because every reader understands both, a rolling upgrade can ship the
+ * readers first and switch {@code coupon.cache.codec} afterwards. Writers default to JSON, so
+ * binary is an explicit opt-in. A binary layout change must get a new version byte while the
+ * readers keep the old one.
+ */
+public abstract class VersionedCacheCodec<T> implements CacheCodec<T> {
+
+    protected static final byte BINARY_V1 = 1;
+    private static final byte JSON_OBJECT = '{';
+
+    private static final ThreadLocal<BinaryPayloadWriter> WRITER = ThreadLocal.withInitial(BinaryPayloadWriter::new);
+
+    private final ObjectMapper objectMapper;
+    private final CacheFormat format;
+
+    protected VersionedCacheCodec(ObjectMapper objectMapper, CacheFormat format) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        if (format == CacheFormat.JSON) {
+            try {
+                return objectMapper.writeValueAsBytes(toJsonValue(value));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to encode cache payload as JSON.", e);
+            }
+        }
+
+        BinaryPayloadWriter writer = WRITER.get().reset();
+        writer.writeByte(BINARY_V1);
+        writeBinary(value, writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public T decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        switch (bytes[0]) {
+            case BINARY_V1:
+                return readBinary(new BinaryPayloadReader(bytes, 1));
+            case JSON_OBJECT:
+                try {
+                    return readJson(objectMapper, bytes);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Failed to decode JSON cache payload.", e);
+                }
+            default:
+                throw new IllegalArgumentException("Unsupported cache payload version: " + bytes[0]);
+        }
+    }
+
+    protected abstract void writeBinary(T value, BinaryPayloadWriter writer);
+
+    protected abstract T readBinary(BinaryPayloadReader reader);
+
+    protected abstract Object toJsonValue(T value);
+
+    protected abstract T readJson(ObjectMapper objectMapper, byte[] bytes) throws IOException;
+}
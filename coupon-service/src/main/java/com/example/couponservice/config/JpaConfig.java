@@ -0,0 +1,48 @@
+package com.example.couponservice.config;
+
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class JpaConfig {
+
+    private final NodeIdLease nodeIdLease;
+
+    @Value("${coupon.id.node-id:-1}")
+    private long nodeId;
+
+    @Value("${coupon.jpa.batch-size:100}")
+    private int batchSize;
+
+    @Bean
+    public SnowflakeIdAllocator snowflakeIdAllocator() {
+        if (nodeId >= 0) {
+            log.info("ID allocator node id: {}", nodeId);
+            return SnowflakeIdAllocator.configureShared(nodeId);
+        }
+        // Without an explicit node id, lease one through Redis for as long as this node runs
+        long leasedNodeId = nodeIdLease.acquire();
+        log.info("ID allocator node id: {} (leased)", leasedNodeId);
+        SnowflakeIdAllocator allocator = SnowflakeIdAllocator.configureShared(leasedNodeId);
+        nodeIdLease.guard(allocator);
+        return allocator;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer batchInsertCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+            properties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+}
@@ -73,4 +73,17 @@ public class KafkaConfig {
 
         return factory;
     }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> couponBatchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(couponConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setConcurrency(3);
+
+        return factory;
+    }
 }
@@ -0,0 +1,166 @@
+package com.example.couponservice.config;
+
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import com.example.couponservice.service.v2.RedisScriptService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases an ID allocator node id through Redis for nodes without {@code coupon.id.node-id}.
+ * <p>
+ * Each node id is a key ({@code coupon:id:node:{id}}) holding its owner with a TTL. The owner
+ * renews it on a schedule and deletes it on shutdown, so ids of stopped or crashed nodes come
+ * back once their lease runs out, and two running nodes never hold the same id.
+ * <p>
+ * The guarded {@link SnowflakeIdAllocator} only hands out IDs until the lease it last saw
+ * confirmed runs out, so a node that cannot renew stops allocating before its node id can be
+ * taken. A node that finds its lease taken moves the allocator to a freshly leased node id.
+ */
+@Slf4j
+@Component
+public class NodeIdLease {
+
+    private static final String NODE_KEY_PREFIX = "coupon:id:node:";
+    private static final String NODE_SEQUENCE_KEY = "coupon:id:node-sequence";
+
+    // KEYS[1] = node key
+    // ARGV[1] = owner, ARGV[2] = ttl millis
+    private static final String RENEW_SCRIPT = """
+            local owner = redis.call('GET', KEYS[1])
+            if owner == false then
+                redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+                return 1
+            end
+            if owner == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                return 1
+            end
+            return 0
+            """;
+
+    // KEYS[1] = node key
+    // ARGV[1] = owner
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    private final RedissonClient redissonClient;
+    private final RedisScriptService redisScriptService;
+    private final long ttlMillis;
+    private final String owner = UUID.randomUUID().toString();
+    private long nodeId = -1;
+    private long deadline;
+    private SnowflakeIdAllocator allocator;
+
+    public NodeIdLease(
+            RedissonClient redissonClient,
+            RedisScriptService redisScriptService,
+            @Value("${coupon.id.node-lease.ttl-ms:30000}") long ttlMillis
+    ) {
+        this.redissonClient = redissonClient;
+        this.redisScriptService = redisScriptService;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Takes the first free node id, starting after the one handed out last so nodes starting
+     * together do not contend for the same id.
+     */
+    public synchronized long acquire() {
+        if (nodeId >= 0) {
+            return nodeId;
+        }
+        long acquiredAt = System.currentTimeMillis();
+        long start = redissonClient.getAtomicLong(NODE_SEQUENCE_KEY).getAndIncrement();
+        for (int i = 0; i <= SnowflakeIdAllocator.MAX_NODE_ID; i++) {
+            long candidate = Math.floorMod(start + i, SnowflakeIdAllocator.MAX_NODE_ID + 1);
+            if (redissonClient.<String>getBucket(key(candidate), StringCodec.INSTANCE)
+                    .trySet(owner, ttlMillis, TimeUnit.MILLISECONDS)) {
+                nodeId = candidate;
+                deadline = acquiredAt + ttlMillis;
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Every ID allocator node id is leased; set coupon.id.node-id explicitly.");
+    }
+
+    /**
+     * Keeps {@code allocator} from handing out IDs past the lease of the node id it was built with.
+     */
+    public synchronized void guard(SnowflakeIdAllocator allocator) {
+        this.allocator = allocator;
+        allocator.leaseUntil(deadline);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.id.node-lease.renew-interval-ms:10000}")
+    public synchronized void renew() {
+        if (nodeId < 0) {
+            if (allocator != null) {
+                reacquire();
+            }
+            return;
+        }
+        long renewedAt = System.currentTimeMillis();
+        try {
+            if (redisScriptService.eval(RENEW_SCRIPT, List.of(key(nodeId)), owner, ttlMillis) == 1) {
+                deadline = renewedAt + ttlMillis;
+                if (allocator != null) {
+                    allocator.leaseUntil(deadline);
+                }
+                return;
+            }
+        } catch (RuntimeException e) {
+            // The allocator stops on its own once the last confirmed lease runs out
+            log.error("Failed to renew ID allocator node id lease: nodeId={}", nodeId, e);
+            return;
+        }
+        log.error("ID allocator node id lease was taken by another node: nodeId={}", nodeId);
+        reacquire();
+    }
+
+    private void reacquire() {
+        if (allocator != null) {
+            allocator.leaseUntil(0);
+        }
+        nodeId = -1;
+        try {
+            long reacquired = acquire();
+            if (allocator != null) {
+                allocator.reassign(reacquired, deadline);
+            }
+            log.info("ID allocator moved to a new node id: nodeId={}", reacquired);
+        } catch (RuntimeException e) {
+            // Allocation stays stopped; the next renewal tries again
+            log.error("Failed to lease a new ID allocator node id", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (nodeId < 0) {
+            return;
+        }
+        try {
+            redisScriptService.eval(RELEASE_SCRIPT, List.of(key(nodeId)), owner);
+        } catch (RuntimeException e) {
+            // The lease runs out on its own
+            log.warn("Failed to release ID allocator node id lease: nodeId={}", nodeId, e);
+        }
+    }
+
+    private static String key(long nodeId) {
+        return NODE_KEY_PREFIX + nodeId;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.couponservice.controller.v1;
 
 import com.example.couponservice.dto.v1.CouponPolicyDto;
 import com.example.couponservice.service.v1.CouponPolicyService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,7 +18,7 @@ public class CouponPolicyController {
     private final CouponPolicyService couponPolicyService;
 
     @PostMapping
-    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@RequestBody CouponPolicyDto.CreateRequest request) {
+    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@Valid @RequestBody CouponPolicyDto.CreateRequest request) {
         CouponPolicyDto.Response response = couponPolicyService.createCouponPolicy(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
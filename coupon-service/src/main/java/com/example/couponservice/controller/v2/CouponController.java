@@ -13,9 +13,13 @@ public class CouponController {
 
     private final CouponService couponService;
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @PostMapping("/issue")
-    public ResponseEntity<CouponDto.Response> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
-        return ResponseEntity.ok(couponService.issueCoupon(request));
+    public ResponseEntity<CouponDto.Response> issueCoupon(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody CouponDto.IssueRequest request) {
+        return ResponseEntity.ok(couponService.issueCoupon(request, idempotencyKey));
     }
 
     @PostMapping("/{couponId}/use")
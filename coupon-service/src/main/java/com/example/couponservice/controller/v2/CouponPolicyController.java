@@ -2,8 +2,9 @@ package com.example.couponservice.controller.v2;
 
 
 import com.example.couponservice.dto.v1.CouponPolicyDto;
+import com.example.couponservice.entity.CouponPolicy;
 import com.example.couponservice.service.v2.CouponPolicyService;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +21,7 @@ public class CouponPolicyController {
     private final CouponPolicyService couponPolicyService;
 
     @PostMapping
-    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@RequestBody CouponPolicyDto.CreateRequest request) throws JsonProcessingException {
+    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@Valid @RequestBody CouponPolicyDto.CreateRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(CouponPolicyDto.Response.from(couponPolicyService.createCouponPolicy(request)));
     }
@@ -30,6 +31,13 @@ public class CouponPolicyController {
         return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.getCouponPolicy(id)));
     }
 
+    @GetMapping("/{id}/quantity")
+    public ResponseEntity<CouponPolicyDto.QuantityResponse> getRemainingQuantity(@PathVariable Long id) {
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(id);
+        return ResponseEntity.ok(CouponPolicyDto.QuantityResponse.of(
+                couponPolicy, couponPolicyService.getRemainingQuantity(couponPolicy)));
+    }
+
     @GetMapping
     public ResponseEntity<List<CouponPolicyDto.Response>> getAllCouponPolicies() {
         return ResponseEntity.ok(couponPolicyService.getAllCouponPolicies().stream()
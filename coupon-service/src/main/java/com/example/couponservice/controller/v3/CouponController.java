@@ -3,8 +3,12 @@ package com.example.couponservice.controller.v3;
 import com.example.couponservice.dto.v3.CouponDto;
 import com.example.couponservice.service.v3.CouponService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
 
 @RestController("couponControllerV3")
 @RequiredArgsConstructor
@@ -12,10 +16,26 @@ import org.springframework.web.bind.annotation.*;
 public class CouponController {
     private final CouponService couponService;
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @PostMapping("/issue")
-    public ResponseEntity<Void> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
-        couponService.requestCouponIssue(request);
-        return ResponseEntity.accepted().build();
+    public ResponseEntity<CouponDto.IssueAccepted> issueCoupon(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody CouponDto.IssueRequest request) {
+        long requestId = couponService.requestCouponIssue(request, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v3/coupons/issue/" + requestId))
+                .body(new CouponDto.IssueAccepted(requestId));
+    }
+
+    @GetMapping("/issue/{requestId}")
+    public ResponseEntity<CouponDto.IssueResult> getIssueResult(@PathVariable Long requestId) {
+        return ResponseEntity.ok(couponService.getIssueResult(requestId));
+    }
+
+    @GetMapping(value = "/issue/{requestId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamIssueResult(@PathVariable Long requestId) {
+        return couponService.streamIssueResult(requestId);
     }
 
     @PostMapping("/{couponId}/use")
@@ -1,8 +1,9 @@
 package com.example.couponservice.controller.v3;
 
 import com.example.couponservice.dto.v1.CouponPolicyDto;
+import com.example.couponservice.entity.CouponPolicy;
 import com.example.couponservice.service.v2.CouponPolicyService;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +19,7 @@ public class CouponPolicyController {
     private final CouponPolicyService couponPolicyService;
 
     @PostMapping
-    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@RequestBody CouponPolicyDto.CreateRequest request) throws JsonProcessingException {
+    public ResponseEntity<CouponPolicyDto.Response> createCouponPolicy(@Valid @RequestBody CouponPolicyDto.CreateRequest request) {
         return ResponseEntity.ok()
                 .body(CouponPolicyDto.Response.from(couponPolicyService.createCouponPolicy(request)));
     }
@@ -28,6 +29,13 @@ public class CouponPolicyController {
         return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.getCouponPolicy(id)));
     }
 
+    @GetMapping("/{id}/quantity")
+    public ResponseEntity<CouponPolicyDto.QuantityResponse> getRemainingQuantity(@PathVariable Long id) {
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(id);
+        return ResponseEntity.ok(CouponPolicyDto.QuantityResponse.of(
+                couponPolicy, couponPolicyService.getRemainingQuantity(couponPolicy)));
+    }
+
     @GetMapping
     public ResponseEntity<List<CouponPolicyDto.Response>> getAllCouponPolicies() {
         return ResponseEntity.ok(couponPolicyService.getAllCouponPolicies().stream()
@@ -2,6 +2,8 @@ package com.example.couponservice.dto.v1;
 
 import com.example.couponservice.entity.CouponPolicy;
 import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssuanceMode;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -46,6 +48,12 @@ public class CouponPolicyDto {
         @NotNull(message = "End time is required.")
         private LocalDateTime endTime;
 
+        private IssuanceMode issuanceMode;
+
+        @Min(value = 1, message = "Shard count must be at least 1.")
+        @Max(value = CouponPolicy.MAX_SHARD_COUNT, message = "Shard count must be at most 64.")
+        private Integer shardCount;
+
         public CouponPolicy toEntity() {
             return CouponPolicy.builder()
                     .name(name)
@@ -57,6 +65,8 @@ public class CouponPolicyDto {
                     .totalQuantity(totalQuantity)
                     .startTime(startTime)
                     .endTime(endTime)
+                    .issuanceMode(issuanceMode != null ? issuanceMode : IssuanceMode.LOCK)
+                    .shardCount(shardCount)
                     .build();
         }
     }
@@ -75,6 +85,8 @@ public class CouponPolicyDto {
         private Integer issuedQuantity;
         private LocalDateTime startTime;
         private LocalDateTime endTime;
+        private IssuanceMode issuanceMode;
+        private Integer shardCount;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
 
@@ -90,9 +102,27 @@ public class CouponPolicyDto {
                     .totalQuantity(couponPolicy.getTotalQuantity())
                     .startTime(couponPolicy.getStartTime())
                     .endTime(couponPolicy.getEndTime())
+                    .issuanceMode(couponPolicy.getIssuanceMode())
+                    .shardCount(couponPolicy.getShardCount())
                     .createdAt(couponPolicy.getCreatedAt())
                     .updatedAt(couponPolicy.getUpdatedAt())
                     .build();
         }
     }
+
+    @Getter
+    @Builder
+    public static class QuantityResponse {
+        private Long policyId;
+        private Integer totalQuantity;
+        private Long remainingQuantity;
+
+        public static QuantityResponse of(CouponPolicy couponPolicy, long remainingQuantity) {
+            return QuantityResponse.builder()
+                    .policyId(couponPolicy.getId())
+                    .totalQuantity(couponPolicy.getTotalQuantity())
+                    .remainingQuantity(remainingQuantity)
+                    .build();
+        }
+    }
 }
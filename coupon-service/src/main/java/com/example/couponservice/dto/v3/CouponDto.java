@@ -3,6 +3,7 @@ package com.example.couponservice.dto.v3;
 import com.example.couponservice.entity.Coupon;
 import com.example.couponservice.entity.CouponPolicy;
 import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssueStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -24,12 +25,42 @@ public class CouponDto {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class IssueMessage {
+        // Assigned when the request is accepted; redeliveries of the message keep it
+        private Long messageId;
         private Long policyId;
         private Long userId;
     }
 
+    @Getter
+    @AllArgsConstructor
+    public static class IssueAccepted {
+        // Message id of the request, used to follow its result
+        private Long requestId;
+    }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IssueResult {
+        private Long requestId;
+        private Long userId;
+        private IssueStatus status;
+        private CouponResponse coupon;
+        private String reason;
+
+        public static IssueResult pending(Long requestId) {
+            return IssueResult.builder()
+                    .requestId(requestId)
+                    .status(IssueStatus.PENDING)
+                    .build();
+        }
+    }
+
     @Getter
     @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class CouponResponse {
         private Long id;
         private Long userId;
@@ -1,5 +1,6 @@
 package com.example.couponservice.entity;
 
+import com.example.couponservice.entity.id.TimeOrderedId;
 import com.example.couponservice.enums.CouponStatus;
 import com.example.couponservice.exception.CouponAlreadyUsedException;
 import com.example.couponservice.exception.CouponExpiredException;
@@ -15,11 +16,13 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
-@Table(name = "coupons")
+// Backs the Redis claimed-user set: a coupon that slips past it still cannot be saved twice
+@Table(name = "coupons", uniqueConstraints = @UniqueConstraint(
+        name = "uk_coupons_policy_user", columnNames = {"coupon_policy_id", "user_id"}))
 public class Coupon {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,6 +48,12 @@ public class Coupon {
         this.status = CouponStatus.AVAILABLE;
     }
 
+    // Coupons saved through JPA had no creation time; CouponBulkRepository writes created_at itself
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
     public void use(Long orderId) {
         if (status == CouponStatus.USED) {
             throw new CouponAlreadyUsedException("Already used coupon.");
@@ -1,8 +1,11 @@
 package com.example.couponservice.entity;
 
+import com.example.couponservice.entity.id.TimeOrderedId;
 import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssuanceMode;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -15,8 +18,11 @@ import java.time.LocalDateTime;
 @Table(name = "coupon_policies")
 public class CouponPolicy {
 
+    // Each shard is its own pair of Redis keys, and a drained home shard falls back through every sibling
+    public static final int MAX_SHARD_COUNT = 64;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false)
@@ -41,6 +47,12 @@ public class CouponPolicy {
     @Column(nullable = false)
     private Integer totalQuantity;
 
+    // Maintained only for IssuanceMode.DATABASE, by a conditional UPDATE rather than the entity
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer issuedQuantity = 0;
+
     @Column(nullable = false)
     private LocalDateTime startTime;
 
@@ -48,6 +60,13 @@ public class CouponPolicy {
     @Setter
     private LocalDateTime endTime;
 
+    @Column
+    @Enumerated(EnumType.STRING)
+    private IssuanceMode issuanceMode;
+
+    @Column
+    private Integer shardCount;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -65,6 +84,14 @@ public class CouponPolicy {
         updatedAt = LocalDateTime.now();
     }
 
+    public IssuanceMode getIssuanceMode() {
+        return issuanceMode != null ? issuanceMode : IssuanceMode.LOCK;
+    }
+
+    public int getShardCount() {
+        return getIssuanceMode() == IssuanceMode.SHARDED && shardCount != null ? shardCount : 1;
+    }
+
     public boolean isValidPeriod() {
         LocalDateTime now = LocalDateTime.now();
         return !now.isBefore(startTime) && !now.isAfter(endTime);
@@ -0,0 +1,89 @@
+package com.example.couponservice.entity.id;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates 16-character coupon codes in Crockford base32: two salt characters, thirteen
+ * characters of scrambled ID and one check character.
+ * <p>
+ * Uniqueness comes from the {@link SnowflakeIdAllocator} ID (node, time and sequence), not from
+ * randomness. The salt is drawn from {@link ThreadLocalRandom} and keys a reversible mix of the ID,
+ * so consecutive codes look unrelated while two codes can only collide if both the salt and the ID
+ * are equal.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponCodeGenerator {
+
+    public static final int CODE_LENGTH = 16;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] SYMBOL_VALUES = new int[128];
+    private static final int SALT_LENGTH = 2;
+    private static final int SALT_BITS = 5 * SALT_LENGTH;
+    private static final long SALT_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[CODE_LENGTH]);
+
+    static {
+        Arrays.fill(SYMBOL_VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            SYMBOL_VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private final SnowflakeIdAllocator snowflakeIdAllocator;
+
+    public String generate() {
+        long id = snowflakeIdAllocator.nextId();
+        int salt = ThreadLocalRandom.current().nextInt(1 << SALT_BITS);
+        long body = mix(id ^ (salt * SALT_MULTIPLIER));
+
+        char[] buffer = BUFFER.get();
+        buffer[0] = ALPHABET[salt >>> 5];
+        buffer[1] = ALPHABET[salt & 31];
+        // 13 symbols hold 65 bits, so the top symbol only ever carries the highest 4 bits
+        for (int i = CODE_LENGTH - 2; i >= SALT_LENGTH; i--) {
+            buffer[i] = ALPHABET[(int) (body & 31)];
+            body >>>= 5;
+        }
+        buffer[CODE_LENGTH - 1] = ALPHABET[checksum(buffer)];
+        return new String(buffer, 0, CODE_LENGTH);
+    }
+
+    public static boolean isValid(String couponCode) {
+        if (couponCode == null || couponCode.length() != CODE_LENGTH) {
+            return false;
+        }
+
+        char[] buffer = BUFFER.get();
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char symbol = couponCode.charAt(i);
+            if (symbol >= SYMBOL_VALUES.length || SYMBOL_VALUES[symbol] < 0) {
+                return false;
+            }
+            buffer[i] = symbol;
+        }
+        return SYMBOL_VALUES[buffer[CODE_LENGTH - 1]] == checksum(buffer);
+    }
+
+    // Odd weights are invertible mod 32, so any single mistyped symbol changes the check value
+    private static int checksum(char[] buffer) {
+        int sum = 0;
+        for (int i = 0; i < CODE_LENGTH - 1; i++) {
+            sum += (2 * i + 1) * SYMBOL_VALUES[buffer[i]];
+        }
+        return sum & 31;
+    }
+
+    // Each step is a bijection on 64 bits, so distinct inputs always give distinct outputs
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
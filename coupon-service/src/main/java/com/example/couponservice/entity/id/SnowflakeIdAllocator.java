@@ -0,0 +1,117 @@
+package com.example.couponservice.entity.id;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Allocates 64-bit IDs laid out as 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node
+ * id and 12 bits of per-millisecond sequence, so IDs from one node are strictly increasing and IDs
+ * across nodes are ordered by creation time to the millisecond.
+ * <p>
+ * A leased node id is only valid until its lease deadline; past it {@link #nextId()} fails rather
+ * than risk sharing the node id with whichever node leases it next.
+ */
+public class SnowflakeIdAllocator {
+
+    public static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_CLOCK_BACKWARD_MILLIS = 5;
+
+    private static volatile SnowflakeIdAllocator shared;
+
+    private final LongSupplier clock;
+    private long nodeId;
+    private long leaseDeadline = Long.MAX_VALUE;
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public SnowflakeIdAllocator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdAllocator(long nodeId, LongSupplier clock) {
+        this.nodeId = validNodeId(nodeId);
+        this.clock = clock;
+    }
+
+    public static SnowflakeIdAllocator configureShared(long nodeId) {
+        shared = new SnowflakeIdAllocator(nodeId);
+        return shared;
+    }
+
+    public static SnowflakeIdAllocator shared() {
+        SnowflakeIdAllocator allocator = shared;
+        if (allocator == null) {
+            throw new IllegalStateException("ID allocator is not configured.");
+        }
+        return allocator;
+    }
+
+    public synchronized long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Allows IDs to be handed out until {@code deadlineMillis}; a deadline in the past stops
+     * allocation right away.
+     */
+    public synchronized void leaseUntil(long deadlineMillis) {
+        leaseDeadline = deadlineMillis;
+    }
+
+    /**
+     * Switches to a newly leased node id. Runs under the same lock as {@link #nextId()}, so no ID
+     * is ever built from a mix of the old and new node id.
+     */
+    public synchronized void reassign(long nodeId, long deadlineMillis) {
+        this.nodeId = validNodeId(nodeId);
+        leaseDeadline = deadlineMillis;
+    }
+
+    public synchronized long nextId() {
+        long timestamp = clock.getAsLong();
+        if (timestamp >= leaseDeadline) {
+            throw new IllegalStateException("ID allocator node id lease expired: nodeId=" + nodeId);
+        }
+        if (timestamp < lastTimestamp) {
+            if (lastTimestamp - timestamp > MAX_CLOCK_BACKWARD_MILLIS) {
+                throw new IllegalStateException("Clock moved backwards by " + (lastTimestamp - timestamp) + "ms.");
+            }
+            timestamp = waitUntilAfter(lastTimestamp - 1);
+        }
+
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                timestamp = waitUntilAfter(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    private static long validNodeId(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        return nodeId;
+    }
+
+    private long waitUntilAfter(long timestamp) {
+        long now = clock.getAsLong();
+        while (now <= timestamp) {
+            Thread.onSpinWait();
+            now = clock.getAsLong();
+        }
+        return now;
+    }
+}
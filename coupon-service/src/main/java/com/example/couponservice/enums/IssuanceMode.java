@@ -0,0 +1,11 @@
+package com.example.couponservice.enums;
+
+public enum IssuanceMode {
+    LOCK,
+    SCRIPT,
+    SHARDED,
+    // Stock is taken from a local lease; the per-user claim is still recorded in Redis
+    LEASED,
+    // Stock lives only in coupon_policies.issued_quantity; issued through v1, no Redis involved
+    DATABASE
+}
@@ -0,0 +1,7 @@
+package com.example.couponservice.enums;
+
+public enum IssueStatus {
+    PENDING,
+    ISSUED,
+    FAILED
+}
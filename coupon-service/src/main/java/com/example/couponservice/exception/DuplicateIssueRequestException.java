@@ -0,0 +1,11 @@
+package com.example.couponservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateIssueRequestException extends RuntimeException {
+    public DuplicateIssueRequestException(String message) {
+        super(message);
+    }
+}
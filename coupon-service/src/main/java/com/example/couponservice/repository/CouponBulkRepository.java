@@ -0,0 +1,48 @@
+package com.example.couponservice.repository;
+
+import com.example.couponservice.entity.Coupon;
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class CouponBulkRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO coupons (id, coupon_policy_id, user_id, coupon_code, status, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdAllocator snowflakeIdAllocator;
+
+    // Writes one multi-row INSERT per chunk so the rows travel in a single round-trip
+    // regardless of driver-level batch rewriting.
+    public int insertAll(List<Coupon> coupons) {
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = 0;
+        for (int from = 0; from < coupons.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Coupon> chunk = coupons.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, coupons.size()));
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            List<Object> args = new ArrayList<>(chunk.size() * 6);
+            for (int i = 0; i < chunk.size(); i++) {
+                Coupon coupon = chunk.get(i);
+                sql.append(i == 0 ? ROW_PLACEHOLDER : ", " + ROW_PLACEHOLDER);
+                args.add(coupon.getId() != null ? coupon.getId() : snowflakeIdAllocator.nextId());
+                args.add(coupon.getCouponPolicy().getId());
+                args.add(coupon.getUserId());
+                args.add(coupon.getCouponCode());
+                args.add(coupon.getStatus().name());
+                args.add(now);
+            }
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+}
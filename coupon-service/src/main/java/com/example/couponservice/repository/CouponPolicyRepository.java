@@ -4,7 +4,9 @@ import com.example.couponservice.entity.CouponPolicy;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -13,4 +15,10 @@ public interface CouponPolicyRepository extends JpaRepository<CouponPolicy, Long
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT cp FROM CouponPolicy cp WHERE cp.id = :id")
     Optional<CouponPolicy> findByIdWithLock(Long id);
+
+    // Claims one unit of stock in a single statement; 0 rows updated means sold out
+    @Modifying
+    @Query("UPDATE CouponPolicy cp SET cp.issuedQuantity = cp.issuedQuantity + 1 " +
+            "WHERE cp.id = :id AND cp.issuedQuantity < cp.totalQuantity")
+    int incrementIssuedQuantity(@Param("id") Long id);
 }
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
@@ -19,6 +20,11 @@ public interface CouponRepository extends JpaRepository<Coupon, Long> {
     @Query("SELECT COUNT(c) FROM Coupon c WHERE c.couponPolicy.id = :policyId")
     Long countByCouponPolicyId(@Param("policyId") Long policyId);
 
+    boolean existsByCouponPolicyIdAndUserId(Long couponPolicyId, Long userId);
+
+    @Query("SELECT c.userId FROM Coupon c WHERE c.couponPolicy.id = :policyId")
+    List<Long> findUserIdsByCouponPolicyId(@Param("policyId") Long policyId);
+
     Page<Coupon> findByUserIdAndStatusOrderByCreatedAtDesc(Long userId, CouponStatus status, Pageable pageable);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
@@ -4,12 +4,17 @@ import com.example.couponservice.config.UserIdInterceptor;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.entity.Coupon;
 import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.entity.id.CouponCodeGenerator;
 import com.example.couponservice.enums.CouponStatus;
+import com.example.couponservice.enums.IssuanceMode;
 import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.exception.CouponNotFoundException;
+import com.example.couponservice.exception.CouponPolicyNotFoundException;
 import com.example.couponservice.repository.CouponPolicyRepository;
 import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.v2.CouponPolicyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,7 +22,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,35 +30,58 @@ public class CouponService {
 
     private final CouponRepository couponRepository;
     private final CouponPolicyRepository couponPolicyRepository;
-
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponPolicyService couponPolicyService;
 
     @Transactional
     public CouponDto.Response issueCoupon(CouponDto.IssueRequest request) {
-        CouponPolicy couponPolicy = couponPolicyRepository.findByIdWithLock(request.getCouponPolicyId())
-                .orElseThrow(() -> new CouponIssueException("Coupon policy not found."));
+        // The mode comes from the policy cache, so only the LOCK path reads the row, under its lock
+        CouponPolicy couponPolicy = getCouponPolicy(request.getCouponPolicyId());
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.DATABASE) {
+            checkIssuancePeriod(couponPolicy);
+            // No row lock and no count: the UPDATE itself refuses to go past the total
+            if (couponPolicyRepository.incrementIssuedQuantity(couponPolicy.getId()) == 0) {
+                throw new CouponIssueException("All coupons have been issued.");
+            }
+        } else {
+            couponPolicy = couponPolicyRepository.findByIdWithLock(request.getCouponPolicyId())
+                    .orElseThrow(() -> new CouponIssueException("Coupon policy not found."));
+            checkIssuancePeriod(couponPolicy);
 
-        LocalDateTime now = LocalDateTime.now();
-        if (now.isBefore(couponPolicy.getStartTime()) || now.isAfter(couponPolicy.getEndTime())) {
-            throw new CouponIssueException("This is not a coupon issuance period.");
-        }
-
-        long issuedCouponCount = couponRepository.countByCouponPolicyId(couponPolicy.getId());
-        if (issuedCouponCount >= couponPolicy.getTotalQuantity()) {
-            throw new CouponIssueException("All coupons have been issued.");
+            long issuedCouponCount = couponRepository.countByCouponPolicyId(couponPolicy.getId());
+            if (issuedCouponCount >= couponPolicy.getTotalQuantity()) {
+                throw new CouponIssueException("All coupons have been issued.");
+            }
         }
 
         Long userId = UserIdInterceptor.getCurrentUserId();
-        String couponCode = generateCouponCode();
+        String couponCode = couponCodeGenerator.generate();
         Coupon coupon = Coupon.builder()
                 .couponPolicy(couponPolicy)
                 .userId(userId)
                 .couponCode(couponCode)
                 .build();
 
-        return CouponDto.Response.from(couponRepository.save(coupon));
+        try {
+            return CouponDto.Response.from(couponRepository.saveAndFlush(coupon));
+        } catch (DataIntegrityViolationException e) {
+            throw new CouponIssueException("Coupon has already been issued to this user.");
+        }
+    }
+
+    private CouponPolicy getCouponPolicy(Long policyId) {
+        try {
+            return couponPolicyService.getCouponPolicy(policyId);
+        } catch (CouponPolicyNotFoundException e) {
+            throw new CouponIssueException("Coupon policy not found.");
+        }
+    }
+
+    private static void checkIssuancePeriod(CouponPolicy couponPolicy) {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(couponPolicy.getStartTime()) || now.isAfter(couponPolicy.getEndTime())) {
+            throw new CouponIssueException("This is not a coupon issuance period.");
+        }
     }
 
     @Transactional
@@ -0,0 +1,46 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.IssuanceMode;
+import com.example.couponservice.repository.CouponPolicyRepository;
+import com.example.couponservice.repository.CouponRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fills the claimed-user sets of running policies from the coupons table on startup. Coupons
+ * issued before every path recorded claims are otherwise invisible to the issue scripts, which
+ * would take a stock unit for their holders only for the {@code uk_coupons_policy_user}
+ * constraint to refuse the insert. Recording a holder twice is a no-op, so it runs on every start.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponClaimedBackfill {
+
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponRepository couponRepository;
+    private final CouponStockService couponStockService;
+
+    @PostConstruct
+    public void backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        for (CouponPolicy couponPolicy : couponPolicyRepository.findAll()) {
+            if (couponPolicy.getIssuanceMode() == IssuanceMode.DATABASE || couponPolicy.getEndTime().isBefore(now)) {
+                continue;
+            }
+            try {
+                List<Long> holders = couponRepository.findUserIdsByCouponPolicyId(couponPolicy.getId());
+                couponStockService.recordClaims(couponPolicy, holders);
+                log.info("Backfilled coupon claimed users: policyId={}, users={}", couponPolicy.getId(), holders.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to backfill coupon claimed users: policyId={}", couponPolicy.getId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.entity.CouponPolicy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * In-JVM L1 cache in front of the {@code coupon:policy:{id}} Redis entries.
+ * <p>
+ * Entries expire after a short TTL as a safety net; changes are pushed to every instance through
+ * the {@code coupon:policy:invalidation} topic. Hit and miss counts are exposed as the
+ * {@code cache.gets} metric tagged {@code cache=couponPolicy}.
+ */
+@Slf4j
+@Component
+public class CouponPolicyLocalCache {
+
+    private static final String INVALIDATION_TOPIC = "coupon:policy:invalidation";
+    private static final String CACHE_NAME = "couponPolicy";
+
+    private final RedissonClient redissonClient;
+    private final Cache<Long, CouponPolicy> cache;
+    private int listenerId = -1;
+
+    public CouponPolicyLocalCache(
+            RedissonClient redissonClient,
+            MeterRegistry meterRegistry,
+            @Value("${coupon.policy.cache.maximum-size:1000}") long maximumSize,
+            @Value("${coupon.policy.cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.redissonClient = redissonClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = topic().addListener(String.class, (channel, policyId) -> {
+            cache.invalidate(Long.valueOf(policyId));
+            log.debug("Coupon policy evicted from local cache: {}", policyId);
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != -1) {
+            topic().removeListener(listenerId);
+        }
+    }
+
+    public CouponPolicy get(Long policyId, Function<Long, CouponPolicy> loader) {
+        return cache.get(policyId, loader);
+    }
+
+    /**
+     * Evicts the policy here and asks every other instance to do the same.
+     */
+    public void invalidate(Long policyId) {
+        cache.invalidate(policyId);
+        try {
+            topic().publish(String.valueOf(policyId));
+        } catch (RuntimeException e) {
+            // Other instances fall back to the TTL
+            log.error("Failed to publish coupon policy invalidation: policyId={}", policyId, e);
+        }
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+    }
+}
@@ -1,16 +1,15 @@
 package com.example.couponservice.service.v2;
 
+import com.example.couponservice.codec.CouponPolicyCodec;
 import com.example.couponservice.dto.v1.CouponPolicyDto;
 import com.example.couponservice.entity.CouponPolicy;
 import com.example.couponservice.exception.CouponPolicyNotFoundException;
 import com.example.couponservice.repository.CouponPolicyRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
 import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,58 +22,65 @@ public class CouponPolicyService {
 
     private final CouponPolicyRepository couponPolicyRepository;
     private final RedissonClient redissonClient;
-    private final ObjectMapper objectMapper;
+    private final CouponPolicyCodec couponPolicyCodec;
+    private final CouponStockService couponStockService;
+    private final CouponPolicyLocalCache couponPolicyLocalCache;
 
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_POLICY_KEY = "coupon:policy:";
 
 
     @Transactional
     public CouponPolicy createCouponPolicy(
             CouponPolicyDto.CreateRequest request
-    ) throws JsonProcessingException {
+    ) {
         // Save the policy to DB
         CouponPolicy couponPolicy = request.toEntity();
         CouponPolicy savedPolicy = couponPolicyRepository.save(couponPolicy);
 
         // Set the initial quantity
-        String quantityKey = COUPON_QUANTITY_KEY + savedPolicy.getId();
-        RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
-        atomicQuantity.set(savedPolicy.getTotalQuantity());
+        couponStockService.initializeQuantity(savedPolicy);
 
         // Save the policy to redis
         String policyKey = COUPON_POLICY_KEY + savedPolicy.getId();
-        String policyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(savedPolicy));
-        RBucket<String> bucket = redissonClient.getBucket(policyKey);
-        bucket.set(policyJson);
+        RBucket<byte[]> bucket = redissonClient.getBucket(policyKey, ByteArrayCodec.INSTANCE);
+        bucket.set(couponPolicyCodec.encode(savedPolicy));
+        couponPolicyLocalCache.invalidate(savedPolicy.getId());
 
         return savedPolicy;
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: an L1 hit must not borrow a connection from the pool
     public CouponPolicy getCouponPolicy(Long id) {
+        return couponPolicyLocalCache.get(id, this::loadCouponPolicy);
+    }
+
+    private CouponPolicy loadCouponPolicy(Long id) {
         String policyKey = COUPON_POLICY_KEY + id;
-        RBucket<String> bucket = redissonClient.getBucket(policyKey);
-        String policyJson = bucket.get();
+        RBucket<byte[]> bucket = redissonClient.getBucket(policyKey, ByteArrayCodec.INSTANCE);
+        CouponPolicy cachedPolicy = decode(bucket.get());
 
-        if (policyJson != null) {
-            return parseJson(policyJson);
+        if (cachedPolicy != null) {
+            return cachedPolicy;
         }
 
         return couponPolicyRepository.findById(id)
                 .orElseThrow(() -> new CouponPolicyNotFoundException("Coupon policy not found."));
     }
 
+    public long getRemainingQuantity(CouponPolicy couponPolicy) {
+        return couponStockService.getRemainingQuantity(couponPolicy);
+    }
+
     @Transactional(readOnly = true)
     public List<CouponPolicy> getAllCouponPolicies() {
         return couponPolicyRepository.findAll();
     }
 
-    private CouponPolicy parseJson(String policyJson) {
+    private CouponPolicy decode(byte[] payload) {
         try {
-            return objectMapper.readValue(policyJson, CouponPolicy.class);
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing coupon policy JSON.", e);
+            return couponPolicyCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.error("Error decoding cached coupon policy.", e);
             return null;
         }
     }
@@ -4,11 +4,12 @@ import com.example.couponservice.config.UserIdInterceptor;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.entity.Coupon;
 import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.entity.id.CouponCodeGenerator;
+import com.example.couponservice.enums.IssuanceMode;
 import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.repository.CouponRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
@@ -25,15 +26,28 @@ public class CouponRedisService {
     private final RedissonClient redissonClient;
     private final CouponRepository couponRepository;
     private final CouponPolicyService couponPolicyService;
+    private final CouponStockService couponStockService;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
 
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_LOCK_KEY = "coupon:lock:";
     private static final long LOCK_WAIT_TIME = 3;
     private static final long LOCK_LEASE_TIME = 5;
 
     @Transactional
     public Coupon issueCoupon(CouponDto.IssueRequest request) {
-        String quantityKey = COUPON_QUANTITY_KEY + request.getCouponPolicyId();
+        if (couponSoldOutRegistry.isSoldOut(request.getCouponPolicyId())) {
+            throw new CouponIssueException("All coupons have been issued.");
+        }
+
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
+        if (couponPolicy != null && couponPolicy.getIssuanceMode() == IssuanceMode.DATABASE) {
+            throw new CouponIssueException("This coupon policy is issued through /api/v1/coupons only.");
+        }
+        if (couponPolicy != null && couponPolicy.getIssuanceMode() != IssuanceMode.LOCK) {
+            return issueCouponWithScript(couponPolicy);
+        }
+
         String lockKey = COUPON_LOCK_KEY + request.getCouponPolicyId();
         RLock lock = redissonClient.getLock(lockKey);
 
@@ -43,28 +57,13 @@ public class CouponRedisService {
                 throw new CouponIssueException("Too many coupon issuance requests. Please try again later.");
             }
 
-            CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
-
             LocalDateTime now = LocalDateTime.now();
             if (now.isBefore(couponPolicy.getStartTime()) || now.isAfter(couponPolicy.getEndTime())) {
                 throw new IllegalStateException("Coupon issuance is not available during this period.");
             }
 
-            // Check and decrease quantity
-            RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
-            long remainingQuantity = atomicQuantity.decrementAndGet();
-
-            if (remainingQuantity < 0) {
-                atomicQuantity.incrementAndGet();
-                throw new CouponIssueException("All coupons have been issued.");
-            }
-
-            // Issue coupon
-            return couponRepository.save(Coupon.builder()
-                    .couponPolicy(couponPolicy)
-                    .userId(UserIdInterceptor.getCurrentUserId())
-                    .couponCode(generateCouponCode())
-                    .build());
+            // The claimed-user check and the decrement run in one script, the lock only serializes callers
+            return issueCouponWithScript(couponPolicy);
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -76,7 +75,19 @@ public class CouponRedisService {
         }
     }
 
-    private String generateCouponCode() {
-        return java.util.UUID.randomUUID().toString().substring(0, 8);
+    private Coupon issueCouponWithScript(CouponPolicy couponPolicy) {
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        couponStockService.decreaseQuantity(couponPolicy, userId);
+
+        try {
+            return couponRepository.save(Coupon.builder()
+                    .couponPolicy(couponPolicy)
+                    .userId(userId)
+                    .couponCode(couponCodeGenerator.generate())
+                    .build());
+        } catch (RuntimeException e) {
+            couponStockService.restoreQuantity(couponPolicy, userId);
+            throw e;
+        }
     }
 }
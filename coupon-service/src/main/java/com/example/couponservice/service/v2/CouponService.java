@@ -1,8 +1,10 @@
 package com.example.couponservice.service.v2;
 
+import com.example.couponservice.config.UserIdInterceptor;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.entity.Coupon;
 import com.example.couponservice.exception.CouponNotFoundException;
+import com.example.couponservice.exception.DuplicateIssueRequestException;
 import com.example.couponservice.repository.CouponRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,9 @@ public class CouponService {
     private final CouponRepository couponRepository;
     private final CouponRedisService couponRedisService;
     private final CouponStateService couponStateService;
+    private final IssuanceDeduplicator issuanceDeduplicator;
+
+    private static final String REQUEST_SCOPE = "request:";
 
     @Transactional
     public CouponDto.Response issueCoupon(CouponDto.IssueRequest request) {
@@ -24,6 +29,33 @@ public class CouponService {
         return CouponDto.Response.from(coupon);
     }
 
+    /**
+     * Issues at most once per key and user: a repeat returns the coupon issued the first time,
+     * or 409 while that first request is still running.
+     */
+    @Transactional
+    public CouponDto.Response issueCoupon(CouponDto.IssueRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return issueCoupon(request);
+        }
+
+        String scope = REQUEST_SCOPE + UserIdInterceptor.getCurrentUserId();
+        long claimed = issuanceDeduplicator.claim(scope, idempotencyKey);
+        if (claimed > 0) {
+            return getCoupon(claimed);
+        }
+        if (claimed == IssuanceDeduplicator.IN_PROGRESS) {
+            throw new DuplicateIssueRequestException("A request with this Idempotency-Key is already in progress.");
+        }
+
+        CouponDto.Response[] issued = new CouponDto.Response[1];
+        issuanceDeduplicator.runClaimed(scope, idempotencyKey, () -> {
+            issued[0] = issueCoupon(request);
+            return issued[0].getId();
+        });
+        return issued[0];
+    }
+
     @Transactional
     public CouponDto.Response useCoupon(Long couponId, Long orderId) {
         Coupon coupon = couponRepository.findByIdWithLock(couponId)
@@ -47,17 +79,7 @@ public class CouponService {
     }
 
     public CouponDto.Response getCoupon(Long couponId) {
-        CouponDto.Response cachedCoupon = couponStateService.getCouponState(couponId);
-        if (cachedCoupon != null) {
-            return cachedCoupon;
-        }
-
-        Coupon coupon = couponRepository.findById(couponId)
-                .orElseThrow(() -> new CouponNotFoundException("Coupon not found."));
-
-        CouponDto.Response response = CouponDto.Response.from(coupon);
-        couponStateService.updateCouponState(coupon);
-
-        return response;
+        return couponStateService.getCouponState(couponId, () -> couponRepository.findById(couponId)
+                .orElseThrow(() -> new CouponNotFoundException("Coupon not found.")));
     }
 }
@@ -0,0 +1,159 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.IssuanceMode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-policy sold-out flags, so requests for drained policies are rejected from memory without
+ * taking a lock or touching the stock counters.
+ * <p>
+ * Flags live in the {@code coupon:sold-out} set and changes are announced on the topic of the same
+ * name ({@code +id} / {@code -id}), which the gateways also follow. A flag is only set after every
+ * counter for the policy read empty and no stock was leased out, and every path that puts stock
+ * back clears it afterwards, so a flag never outlives returned stock. Each node re-reads the set
+ * periodically in case a message was missed.
+ */
+@Slf4j
+@Component
+public class CouponSoldOutRegistry {
+
+    private static final String SOLD_OUT_KEY = "coupon:sold-out";
+
+    // KEYS[1] = sold-out set
+    // ARGV[1] = policy id, ARGV[2] = channel
+    private static final String MARK_SCRIPT = """
+            if redis.call('SADD', KEYS[1], ARGV[1]) == 1 then
+                redis.call('PUBLISH', ARGV[2], '+' .. ARGV[1])
+            end
+            return 1
+            """;
+
+    // KEYS[1] = sold-out set
+    // ARGV[1] = policy id, ARGV[2] = channel
+    private static final String CLEAR_SCRIPT = """
+            if redis.call('SREM', KEYS[1], ARGV[1]) == 1 then
+                redis.call('PUBLISH', ARGV[2], '-' .. ARGV[1])
+                return 1
+            end
+            return 0
+            """;
+
+    private final RedissonClient redissonClient;
+    private final RedisScriptService redisScriptService;
+    private final Set<Long> soldOut = ConcurrentHashMap.newKeySet();
+    private int listenerId = -1;
+
+    public CouponSoldOutRegistry(RedissonClient redissonClient, RedisScriptService redisScriptService) {
+        this.redissonClient = redissonClient;
+        this.redisScriptService = redisScriptService;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = topic().addListener(String.class, (channel, message) -> apply(message));
+        resync();
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != -1) {
+            topic().removeListener(listenerId);
+        }
+    }
+
+    public boolean isSoldOut(Long policyId) {
+        return soldOut.contains(policyId);
+    }
+
+    /**
+     * Flags the policy if its stock is really gone. Call after a request found no stock or took
+     * the last unit.
+     */
+    public void markIfSoldOut(CouponPolicy couponPolicy) {
+        Long policyId = couponPolicy.getId();
+        try {
+            if (hasStock(couponPolicy)) {
+                return;
+            }
+            redisScriptService.eval(MARK_SCRIPT, List.of(SOLD_OUT_KEY), policyId, SOLD_OUT_KEY);
+            soldOut.add(policyId);
+            // The counters live in other slots, so they are read apart from the flag. Stock returned
+            // before the flag was set would not clear it, so read again and undo the flag if needed
+            if (hasStock(couponPolicy)) {
+                clear(policyId);
+            }
+        } catch (RuntimeException e) {
+            // Requests keep going to the counters, which stay authoritative
+            log.error("Failed to mark coupon policy sold out: policyId={}", policyId, e);
+        }
+    }
+
+    /**
+     * Clears the flag after stock was returned. Must run after the counter was incremented.
+     */
+    public void clear(Long policyId) {
+        soldOut.remove(policyId);
+        try {
+            redisScriptService.eval(CLEAR_SCRIPT, List.of(SOLD_OUT_KEY), policyId, SOLD_OUT_KEY);
+        } catch (RuntimeException e) {
+            log.error("Failed to clear coupon policy sold-out flag: policyId={}", policyId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.sold-out.resync-interval-ms:10000}")
+    public void resync() {
+        try {
+            Set<String> members = redissonClient.<String>getSet(SOLD_OUT_KEY, StringCodec.INSTANCE).readAll();
+            Set<Long> current = new HashSet<>();
+            members.forEach(member -> current.add(Long.valueOf(member)));
+            soldOut.retainAll(current);
+            soldOut.addAll(current);
+        } catch (RuntimeException e) {
+            log.error("Failed to resync sold-out coupon policies", e);
+        }
+    }
+
+    private void apply(String message) {
+        Long policyId = Long.valueOf(message.substring(1));
+        if (message.charAt(0) == '+') {
+            soldOut.add(policyId);
+        } else {
+            soldOut.remove(policyId);
+        }
+    }
+
+    private boolean hasStock(CouponPolicy couponPolicy) {
+        Long policyId = couponPolicy.getId();
+        RBatch batch = redissonClient.createBatch();
+        batch.getMap(CouponStockKeys.leaseKey(policyId), StringCodec.INSTANCE).sizeAsync();
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.SHARDED) {
+            for (int shard = 0; shard < couponPolicy.getShardCount(); shard++) {
+                batch.getAtomicLong(CouponStockKeys.shardQuantityKey(policyId, shard)).getAsync();
+            }
+        } else {
+            batch.getAtomicLong(CouponStockKeys.quantityKey(policyId)).getAsync();
+        }
+        BatchResult<?> result = batch.execute();
+        return result.getResponses().stream()
+                .anyMatch(response -> ((Number) response).longValue() > 0);
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(SOLD_OUT_KEY, StringCodec.INSTANCE);
+    }
+}
@@ -1,54 +1,206 @@
 package com.example.couponservice.service.v2;
 
+import com.example.couponservice.codec.CouponStateCodec;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.entity.Coupon;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
 import org.redisson.api.RBucket;
+import org.redisson.api.RFuture;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CouponStateService {
 
     private final RedissonClient redissonClient;
-    private final ObjectMapper objectMapper;
+    private final CouponStateCodec couponStateCodec;
 
     private static final String COUPON_STATE_KEY = "coupon:state:";
+    private static final String COUPON_STATE_LEASE_KEY = "coupon:state:lease:";
+    private static final long NO_EXPIRY = -1L;
+    private static final long LEASE_POLL_INTERVAL_MILLIS = 20;
+    private static final double LOAD_TIME_SMOOTHING = 0.2;
+
+    @Value("${coupon.state.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${coupon.state.cache.lease-millis:3000}")
+    private long leaseMillis;
+
+    @Value("${coupon.state.cache.lease-wait-millis:500}")
+    private long leaseWaitMillis;
+
+    @Value("${coupon.state.cache.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, CompletableFuture<CouponDto.Response>> inFlightLoads = new ConcurrentHashMap<>();
+    private volatile double averageLoadMillis = 10;
 
     public void updateCouponState(Coupon coupon) {
+        writeCouponState(coupon.getId(), CouponDto.Response.from(coupon));
+    }
+
+    /**
+     * Returns the cached coupon state, loading it at most once per key at a time.
+     * <p>
+     * Concurrent misses on this instance share one load, and a short Redis lease lets only one
+     * instance hit the database while the others wait for its result. Entries close to expiry are
+     * refreshed early with a probability that grows as the TTL runs out (XFetch), so hot keys are
+     * reloaded by a single caller before they disappear.
+     */
+    public CouponDto.Response getCouponState(Long couponId, Supplier<Coupon> loader) {
+        String stateKey = COUPON_STATE_KEY + couponId;
+        byte[] payload;
+        long remainingMillis;
         try {
-            String stateKey = COUPON_STATE_KEY + coupon.getId();
-            String couponJson = objectMapper.writeValueAsString(CouponDto.Response.from(coupon));
-            RBucket<String> bucket = redissonClient.getBucket(stateKey);
-            bucket.set(couponJson);
+            RBatch batch = redissonClient.createBatch();
+            RFuture<byte[]> valueFuture = batch.<byte[]>getBucket(stateKey, ByteArrayCodec.INSTANCE).getAsync();
+            RFuture<Long> ttlFuture = batch.getBucket(stateKey, ByteArrayCodec.INSTANCE).remainTimeToLiveAsync();
+            batch.execute();
+            payload = valueFuture.toCompletableFuture().join();
+            remainingMillis = ttlFuture.toCompletableFuture().join();
+        } catch (Exception e) {
+            log.error("Error getting coupon state: {}", e.getMessage(), e);
+            throw new RuntimeException("An error occurred while getting the coupon status.", e);
+        }
 
-            log.info("Coupon state updated: {}", coupon.getId());
+        CouponDto.Response cached = decode(payload);
+        if (cached == null) {
+            return loadSingleFlight(couponId, loader, null);
+        }
+        if (shouldRefreshEarly(remainingMillis)) {
+            return loadSingleFlight(couponId, loader, cached);
+        }
+        return cached;
+    }
 
-        } catch (Exception e) {
-            log.error("Error updating coupon state: {}", e.getMessage(), e);
-            throw new RuntimeException("An error occurred while updating the coupon status.", e);
+    private CouponDto.Response loadSingleFlight(Long couponId, Supplier<Coupon> loader, CouponDto.Response stale) {
+        CompletableFuture<CouponDto.Response> load = new CompletableFuture<>();
+        CompletableFuture<CouponDto.Response> inFlight = inFlightLoads.putIfAbsent(couponId, load);
+        if (inFlight != null) {
+            return stale != null ? stale : await(inFlight);
+        }
+
+        try {
+            CouponDto.Response response = loadWithLease(couponId, loader, stale);
+            load.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(couponId, load);
         }
     }
 
+    private CouponDto.Response loadWithLease(Long couponId, Supplier<Coupon> loader, CouponDto.Response stale) {
+        RBucket<String> lease = redissonClient.getBucket(COUPON_STATE_LEASE_KEY + couponId, StringCodec.INSTANCE);
+        boolean leased = lease.trySet(instanceId, leaseMillis, TimeUnit.MILLISECONDS);
+        if (!leased) {
+            // Another instance is loading: serve what we have, or wait briefly for its result
+            if (stale != null) {
+                return stale;
+            }
+            CouponDto.Response loaded = waitForCouponState(couponId);
+            if (loaded != null) {
+                return loaded;
+            }
+        }
 
-    public CouponDto.Response getCouponState(Long couponId) {
         try {
-            String stateKey = COUPON_STATE_KEY + couponId;
-            RBucket<String> bucket = redissonClient.getBucket(stateKey);
-            String couponJson = bucket.get();
+            long startedAt = System.nanoTime();
+            CouponDto.Response response = CouponDto.Response.from(loader.get());
+            recordLoadTime(System.nanoTime() - startedAt);
+            writeCouponState(couponId, response);
+            return response;
+        } finally {
+            if (leased) {
+                lease.compareAndSet(instanceId, null);
+            }
+        }
+    }
 
-            if (couponJson == null) {
+    private CouponDto.Response waitForCouponState(Long couponId) {
+        RBucket<byte[]> bucket = redissonClient.getBucket(COUPON_STATE_KEY + couponId, ByteArrayCodec.INSTANCE);
+        long deadline = System.currentTimeMillis() + leaseWaitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return null;
             }
+            CouponDto.Response loaded = decode(bucket.get());
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        return null;
+    }
+
+    private CouponDto.Response await(CompletableFuture<CouponDto.Response> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Keys written without a TTL never expire, so they are refreshed once to pick one up
+    private boolean shouldRefreshEarly(long remainingMillis) {
+        if (remainingMillis == NO_EXPIRY) {
+            return true;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        return -averageLoadMillis * earlyRefreshBeta * Math.log(random) >= remainingMillis;
+    }
+
+    private void recordLoadTime(long elapsedNanos) {
+        double elapsedMillis = elapsedNanos / 1_000_000.0;
+        averageLoadMillis += LOAD_TIME_SMOOTHING * (elapsedMillis - averageLoadMillis);
+    }
+
+    private void writeCouponState(Long couponId, CouponDto.Response response) {
+        try {
+            String stateKey = COUPON_STATE_KEY + couponId;
+            RBucket<byte[]> bucket = redissonClient.getBucket(stateKey, ByteArrayCodec.INSTANCE);
+            bucket.set(couponStateCodec.encode(response), ttlSeconds, TimeUnit.SECONDS);
+
+            log.info("Coupon state updated: {}", couponId);
 
-            return objectMapper.readValue(couponJson, CouponDto.Response.class);
         } catch (Exception e) {
-            log.error("Error getting coupon state: {}", e.getMessage(), e);
+            log.error("Error updating coupon state: {}", e.getMessage(), e);
             throw new RuntimeException("An error occurred while updating the coupon status.", e);
         }
     }
-}
\ No newline at end of file
+
+    // Payloads this codec cannot read are treated as a miss and reloaded
+    private CouponDto.Response decode(byte[] payload) {
+        try {
+            return couponStateCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Discarding unreadable coupon state: {}", e.getMessage());
+            return null;
+        }
+    }
+}
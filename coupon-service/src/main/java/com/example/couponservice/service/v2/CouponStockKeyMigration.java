@@ -0,0 +1,97 @@
+package com.example.couponservice.service.v2;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Moves stock keys written before they carried a hash tag ({@code coupon:quantity:1},
+ * {@code coupon:claimed:1}, {@code coupon:lease:1}) to their tagged names on startup. A counter
+ * or lease is only moved while its tagged key does not exist yet, and claimed sets are merged, so
+ * running it on every start is safe. Roll it out with issuance paused: nodes on the old version
+ * keep using the untagged keys.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponStockKeyMigration {
+
+    private static final List<String> LEGACY_PATTERNS = List.of(
+            CouponStockKeys.QUANTITY_PREFIX + "*", CouponStockKeys.CLAIMED_PREFIX + "*", CouponStockKeys.LEASE_PREFIX + "*");
+    private static final Pattern LEGACY_KEY = Pattern.compile("coupon:(quantity|claimed|lease):(\\d+)");
+
+    private final RedissonClient redissonClient;
+
+    @PostConstruct
+    public void migrate() {
+        for (String pattern : LEGACY_PATTERNS) {
+            try {
+                for (String key : redissonClient.getKeys().getKeysByPattern(pattern)) {
+                    Matcher matcher = LEGACY_KEY.matcher(key);
+                    if (matcher.matches()) {
+                        migrate(key, matcher.group(1), Long.valueOf(matcher.group(2)));
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to migrate legacy coupon stock keys: pattern={}", pattern, e);
+            }
+        }
+    }
+
+    private void migrate(String legacyKey, String type, Long policyId) {
+        switch (type) {
+            case "quantity" -> moveCounter(legacyKey, CouponStockKeys.quantityKey(policyId));
+            case "claimed" -> mergeClaimed(legacyKey, CouponStockKeys.claimedKey(policyId));
+            default -> moveLeases(legacyKey, CouponStockKeys.leaseKey(policyId));
+        }
+    }
+
+    private void moveCounter(String legacyKey, String key) {
+        RBucket<String> legacy = redissonClient.getBucket(legacyKey, StringCodec.INSTANCE);
+        String quantity = legacy.get();
+        if (quantity == null) {
+            return;
+        }
+        if (!redissonClient.<String>getBucket(key, StringCodec.INSTANCE).trySet(quantity)) {
+            log.warn("Both legacy and tagged stock counters exist, keeping both: {} / {}", legacyKey, key);
+            return;
+        }
+        legacy.delete();
+        log.info("Migrated coupon stock counter: {} -> {}", legacyKey, key);
+    }
+
+    private void mergeClaimed(String legacyKey, String key) {
+        RSet<String> legacy = redissonClient.getSet(legacyKey, StringCodec.INSTANCE);
+        RSet<String> claimed = redissonClient.getSet(key, StringCodec.INSTANCE);
+        claimed.addAll(legacy.readAll());
+        long ttlMillis = legacy.remainTimeToLive();
+        if (ttlMillis > 0 && claimed.remainTimeToLive() < 0) {
+            claimed.expire(Duration.ofMillis(ttlMillis));
+        }
+        legacy.delete();
+        log.info("Migrated coupon claimed users: {} -> {}", legacyKey, key);
+    }
+
+    private void moveLeases(String legacyKey, String key) {
+        RMap<String, String> leases = redissonClient.getMap(key, StringCodec.INSTANCE);
+        if (leases.isExists()) {
+            log.warn("Both legacy and tagged stock leases exist, keeping both: {} / {}", legacyKey, key);
+            return;
+        }
+        RMap<String, String> legacy = redissonClient.getMap(legacyKey, StringCodec.INSTANCE);
+        leases.putAll(legacy.readAllMap());
+        legacy.delete();
+        log.info("Migrated coupon stock leases: {} -> {}", legacyKey, key);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.couponservice.service.v2;
+
+/**
+ * Redis keys of a policy's stock. Every key a stock script touches carries the same hash tag, the
+ * policy id or the policy id and shard, so the script stays in one Redis Cluster slot.
+ */
+final class CouponStockKeys {
+
+    static final String QUANTITY_PREFIX = "coupon:quantity:";
+    static final String CLAIMED_PREFIX = "coupon:claimed:";
+    static final String LEASE_PREFIX = "coupon:lease:";
+    static final String LEASE_POLICIES_KEY = "coupon:lease:policies";
+
+    private CouponStockKeys() {
+    }
+
+    static String quantityKey(Long policyId) {
+        return QUANTITY_PREFIX + tag(policyId);
+    }
+
+    static String claimedKey(Long policyId) {
+        return CLAIMED_PREFIX + tag(policyId);
+    }
+
+    static String leaseKey(Long policyId) {
+        return LEASE_PREFIX + tag(policyId);
+    }
+
+    static String shardQuantityKey(Long policyId, int shard) {
+        return QUANTITY_PREFIX + shardTag(policyId, shard);
+    }
+
+    static String shardClaimedKey(Long policyId, int shard) {
+        return CLAIMED_PREFIX + shardTag(policyId, shard);
+    }
+
+    private static String tag(Long policyId) {
+        return "{" + policyId + "}";
+    }
+
+    private static String shardTag(Long policyId, int shard) {
+        return "{" + policyId + ":" + shard + "}";
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.couponservice.service.v2;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Leases blocks of stock from {@code coupon:quantity:{<policyId>}} into this instance so most
+ * issuances take their unit from memory instead of decrementing the shared counter.
+ * <p>
+ * This does not make issuance Redis-free: the user's claim is still added to
+ * {@code coupon:claimed:{<policyId>}} on every issuance, one round trip that has to succeed before
+ * stock is taken. What leasing saves is the stock script and the contention on the one counter key.
+ * <p>
+ * Each lease keeps a floor that is written to {@code coupon:lease:{<policyId>}} before it is
+ * lowered locally, and the instance never issues below it. If the instance crashes, the floor
+ * is what gets reclaimed, so reclaiming an orphaned lease can lose at most one allowance of
+ * stock but can never oversell.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CouponStockLeaseService {
+
+    private final RedissonClient redissonClient;
+    private final RedisScriptService redisScriptService;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+
+    private static final String EXPIRES_AT_SUFFIX = ":expiresAt";
+    private static final long LEASE_LOST = -1L;
+
+    // KEYS[1] = quantity, KEYS[2] = leases
+    // ARGV[1] = instance id, ARGV[2] = lease size, ARGV[3] = allowance, ARGV[4] = orphan timeout millis
+    private static final String LEASE_SCRIPT = """
+            local quantity = tonumber(redis.call('GET', KEYS[1]) or '0')
+            local granted = math.min(quantity, tonumber(ARGV[2]))
+            if granted <= 0 then
+                return 0
+            end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('DECRBY', KEYS[1], granted)
+            redis.call('HSET', KEYS[2], ARGV[1], math.max(0, granted - tonumber(ARGV[3])),
+                    ARGV[1] .. ':expiresAt', now + tonumber(ARGV[4]))
+            return granted
+            """;
+
+    // KEYS[1] = leases
+    // ARGV[1] = instance id, ARGV[2] = floor, ARGV[3] = orphan timeout millis
+    private static final String CHECKPOINT_SCRIPT = """
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then
+                return -1
+            end
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2], ARGV[1] .. ':expiresAt', now + tonumber(ARGV[3]))
+            return 0
+            """;
+
+    // KEYS[1] = quantity, KEYS[2] = leases
+    // ARGV[1] = instance id, ARGV[2] = remaining, ARGV[3] = floor
+    private static final String RETURN_SCRIPT = """
+            local units = tonumber(ARGV[2])
+            if redis.call('HEXISTS', KEYS[2], ARGV[1]) == 0 then
+                units = units - tonumber(ARGV[3])
+            end
+            redis.call('HDEL', KEYS[2], ARGV[1], ARGV[1] .. ':expiresAt')
+            if units <= 0 then
+                return 0
+            end
+            return redis.call('INCRBY', KEYS[1], units)
+            """;
+
+    // KEYS[1] = quantity, KEYS[2] = leases
+    private static final String RECLAIM_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local entries = redis.call('HGETALL', KEYS[2])
+            local reclaimed = 0
+            for i = 1, #entries, 2 do
+                local field = entries[i]
+                if string.sub(field, -10) == ':expiresAt' and tonumber(entries[i + 1]) < now then
+                    local instance = string.sub(field, 1, -11)
+                    reclaimed = reclaimed + tonumber(redis.call('HGET', KEYS[2], instance) or '0')
+                    redis.call('HDEL', KEYS[2], instance, field)
+                end
+            end
+            if reclaimed > 0 then
+                redis.call('INCRBY', KEYS[1], reclaimed)
+            end
+            return reclaimed
+            """;
+
+    @Value("${coupon.stock.lease.size:500}")
+    private long leaseSize;
+
+    @Value("${coupon.stock.lease.allowance:50}")
+    private long leaseAllowance;
+
+    @Value("${coupon.stock.lease.ttl-seconds:60}")
+    private long leaseTtlSeconds;
+
+    @Value("${coupon.stock.lease.orphan-timeout-ms:15000}")
+    private long orphanTimeoutMillis;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, StockLease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * Takes one unit of stock, returning the units left in the local lease, or -1 when the
+     * policy is sold out.
+     */
+    public long acquire(Long policyId) {
+        while (true) {
+            StockLease lease = leases.computeIfAbsent(policyId, id -> new StockLease());
+            long remaining = lease.tryAcquire();
+            if (remaining >= 0) {
+                return remaining;
+            }
+
+            synchronized (lease) {
+                if (leases.get(policyId) != lease) {
+                    continue;
+                }
+                remaining = lease.tryAcquire();
+                if (remaining >= 0) {
+                    return remaining;
+                }
+
+                if (lease.remaining.get() > 0) {
+                    if (!checkpoint(policyId, lease)) {
+                        returnLease(policyId, lease);
+                    }
+                    continue;
+                }
+
+                // Registered before the lease exists, so the reclaimer never misses it; the policy set
+                // lives in another slot, which is why it is not written by the lease script
+                redissonClient.getSet(CouponStockKeys.LEASE_POLICIES_KEY, StringCodec.INSTANCE)
+                        .add(String.valueOf(policyId));
+                long granted = redisScriptService.eval(LEASE_SCRIPT,
+                        List.of(CouponStockKeys.quantityKey(policyId), CouponStockKeys.leaseKey(policyId)),
+                        instanceId, leaseSize, leaseAllowance, orphanTimeoutMillis);
+                if (granted <= 0) {
+                    return -1;
+                }
+                lease.grant(granted, Math.max(0, granted - leaseAllowance),
+                        System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(leaseTtlSeconds));
+            }
+        }
+    }
+
+    public void restore(Long policyId) {
+        StockLease lease = leases.get(policyId);
+        if (lease != null) {
+            synchronized (lease) {
+                if (leases.get(policyId) == lease) {
+                    lease.remaining.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        redissonClient.getAtomicLong(CouponStockKeys.quantityKey(policyId)).incrementAndGet();
+        couponSoldOutRegistry.clear(policyId);
+    }
+
+    public long getLeasedQuantity(Long policyId) {
+        Map<String, String> entries = redissonClient.<String, String>getMap(CouponStockKeys.leaseKey(policyId), StringCodec.INSTANCE)
+                .readAllMap();
+        long checkpointed = entries.entrySet().stream()
+                .filter(entry -> !entry.getKey().endsWith(EXPIRES_AT_SUFFIX))
+                .mapToLong(entry -> Long.parseLong(entry.getValue()))
+                .sum();
+
+        StockLease lease = leases.get(policyId);
+        return lease != null ? checkpointed + Math.max(0, lease.remaining.get() - lease.floor) : checkpointed;
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.stock.lease.heartbeat-interval-ms:5000}")
+    public void maintainLeases() {
+        long now = System.currentTimeMillis();
+        leases.forEach((policyId, lease) -> {
+            try {
+                synchronized (lease) {
+                    if (leases.get(policyId) != lease) {
+                        return;
+                    }
+                    if (lease.expiresAt <= now || lease.remaining.get() <= 0 || !checkpoint(policyId, lease)) {
+                        returnLease(policyId, lease);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to maintain stock lease: policyId={}", policyId, e);
+            }
+        });
+
+        reclaimOrphanedLeases();
+    }
+
+    @PreDestroy
+    public void returnAllLeases() {
+        leases.forEach((policyId, lease) -> {
+            try {
+                synchronized (lease) {
+                    returnLease(policyId, lease);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to return stock lease on shutdown: policyId={}", policyId, e);
+            }
+        });
+    }
+
+    private void reclaimOrphanedLeases() {
+        for (String policyId : redissonClient.<String>getSet(CouponStockKeys.LEASE_POLICIES_KEY, StringCodec.INSTANCE).readAll()) {
+            try {
+                long reclaimed = redisScriptService.eval(RECLAIM_SCRIPT,
+                        List.of(CouponStockKeys.quantityKey(Long.valueOf(policyId)),
+                                CouponStockKeys.leaseKey(Long.valueOf(policyId))));
+                if (reclaimed > 0) {
+                    log.info("Reclaimed orphaned stock leases: policyId={}, quantity={}", policyId, reclaimed);
+                    couponSoldOutRegistry.clear(Long.valueOf(policyId));
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to reclaim orphaned stock leases: policyId={}", policyId, e);
+            }
+        }
+    }
+
+    // Must be called while holding the lease monitor
+    private boolean checkpoint(Long policyId, StockLease lease) {
+        long floor = Math.min(lease.floor, Math.max(0, lease.remaining.get() - leaseAllowance));
+        long result = redisScriptService.eval(CHECKPOINT_SCRIPT,
+                List.of(CouponStockKeys.leaseKey(policyId)),
+                instanceId, floor, orphanTimeoutMillis);
+        if (result == LEASE_LOST) {
+            log.warn("Stock lease was reclaimed by another instance: policyId={}", policyId);
+            return false;
+        }
+        lease.floor = floor;
+        return true;
+    }
+
+    // Must be called while holding the lease monitor
+    private void returnLease(Long policyId, StockLease lease) {
+        leases.remove(policyId, lease);
+        long remaining = Math.max(0, lease.remaining.getAndSet(0));
+        long returned = redisScriptService.eval(RETURN_SCRIPT,
+                List.of(CouponStockKeys.quantityKey(policyId), CouponStockKeys.leaseKey(policyId)),
+                instanceId, remaining, lease.floor);
+        if (returned > 0) {
+            couponSoldOutRegistry.clear(policyId);
+        }
+    }
+
+    private static class StockLease {
+        private final AtomicLong remaining = new AtomicLong();
+        private volatile long floor;
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private long tryAcquire() {
+            long current;
+            do {
+                current = remaining.get();
+                if (current <= floor) {
+                    return -1;
+                }
+            } while (!remaining.compareAndSet(current, current - 1));
+            return current - 1;
+        }
+
+        private void grant(long granted, long floor, long expiresAt) {
+            this.floor = floor;
+            this.expiresAt = expiresAt;
+            remaining.addAndGet(granted);
+        }
+    }
+}
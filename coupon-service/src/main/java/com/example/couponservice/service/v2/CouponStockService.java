@@ -0,0 +1,300 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.IssuanceMode;
+import com.example.couponservice.exception.CouponIssueException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RSetAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CouponStockService {
+
+    private final RedissonClient redissonClient;
+    private final RedisScriptService redisScriptService;
+    private final CouponStockLeaseService couponStockLeaseService;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+
+    private static final long CLAIMED_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final long SOLD_OUT = -1L;
+    private static final long ALREADY_CLAIMED = -2L;
+    private static final long OUT_OF_PERIOD = -3L;
+
+    // KEYS[1] = quantity, KEYS[2] = claimed users
+    // ARGV[1] = user id, ARGV[2] = start millis, ARGV[3] = end millis, ARGV[4] = claimed set expiry millis
+    private static final String ISSUE_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            if now < tonumber(ARGV[2]) or now > tonumber(ARGV[3]) then
+                return -3
+            end
+            if redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then
+                return -2
+            end
+            local quantity = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if quantity <= 0 then
+                return -1
+            end
+            redis.call('SADD', KEYS[2], ARGV[1])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+            return redis.call('DECR', KEYS[1])
+            """;
+
+    // KEYS[1] = quantity
+    private static final String DECREASE_SCRIPT = """
+            local quantity = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if quantity <= 0 then
+                return -1
+            end
+            return redis.call('DECR', KEYS[1])
+            """;
+
+    // KEYS[1] = claimed users
+    // ARGV[1] = user id, ARGV[2] = claimed set expiry millis
+    private static final String CLAIM_SCRIPT = """
+            if redis.call('SADD', KEYS[1], ARGV[1]) == 0 then
+                return -2
+            end
+            redis.call('PEXPIREAT', KEYS[1], ARGV[2])
+            return 0
+            """;
+
+    // KEYS[1] = quantity, KEYS[2] = claimed users
+    // ARGV[1] = user id
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('SREM', KEYS[2], ARGV[1]) == 1 then
+                return redis.call('INCR', KEYS[1])
+            end
+            return -1
+            """;
+
+    public void initializeQuantity(CouponPolicy couponPolicy) {
+        int shardCount = couponPolicy.getShardCount();
+        if (couponPolicy.getIssuanceMode() != IssuanceMode.SHARDED) {
+            redissonClient.getAtomicLong(CouponStockKeys.quantityKey(couponPolicy.getId()))
+                    .set(couponPolicy.getTotalQuantity());
+            couponSoldOutRegistry.clear(couponPolicy.getId());
+            return;
+        }
+
+        // Spread the remainder over the first shards so the shards always sum to the total
+        int baseQuantity = couponPolicy.getTotalQuantity() / shardCount;
+        int remainder = couponPolicy.getTotalQuantity() % shardCount;
+        RBatch batch = redissonClient.createBatch();
+        for (int shard = 0; shard < shardCount; shard++) {
+            batch.getAtomicLong(CouponStockKeys.shardQuantityKey(couponPolicy.getId(), shard))
+                    .setAsync(baseQuantity + (shard < remainder ? 1 : 0));
+        }
+        batch.execute();
+        couponSoldOutRegistry.clear(couponPolicy.getId());
+    }
+
+    public long getRemainingQuantity(CouponPolicy couponPolicy) {
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.LEASED) {
+            return redissonClient.getAtomicLong(CouponStockKeys.quantityKey(couponPolicy.getId())).get()
+                    + couponStockLeaseService.getLeasedQuantity(couponPolicy.getId());
+        }
+        if (couponPolicy.getIssuanceMode() != IssuanceMode.SHARDED) {
+            return redissonClient.getAtomicLong(CouponStockKeys.quantityKey(couponPolicy.getId())).get();
+        }
+
+        RBatch batch = redissonClient.createBatch();
+        for (int shard = 0; shard < couponPolicy.getShardCount(); shard++) {
+            batch.getAtomicLong(CouponStockKeys.shardQuantityKey(couponPolicy.getId(), shard)).getAsync();
+        }
+        BatchResult<?> result = batch.execute();
+        return result.getResponses().stream()
+                .mapToLong(response -> ((Number) response).longValue())
+                .sum();
+    }
+
+    public long decreaseQuantity(CouponPolicy couponPolicy, Long userId) {
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.SHARDED) {
+            return decreaseShardedQuantity(couponPolicy, userId);
+        }
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.LEASED) {
+            return decreaseLeasedQuantity(couponPolicy, userId);
+        }
+
+        long result = evalIssueScript(couponPolicy, CouponStockKeys.quantityKey(couponPolicy.getId()),
+                CouponStockKeys.claimedKey(couponPolicy.getId()), userId);
+        if (result == SOLD_OUT) {
+            couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+            throw new CouponIssueException("All coupons have been issued.");
+        }
+        if (result == 0) {
+            couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+        }
+        return result;
+    }
+
+    public void restoreQuantity(CouponPolicy couponPolicy, Long userId) {
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.LEASED) {
+            // Only the caller that removed the claim gives the unit back, so a repeated restore is a no-op
+            if (releaseClaim(couponPolicy, userId)) {
+                couponStockLeaseService.restore(couponPolicy.getId());
+                couponSoldOutRegistry.clear(couponPolicy.getId());
+            }
+            return;
+        }
+
+        try {
+            // Sharded stock always goes back to the user's home shard, which keeps the total exact
+            int shard = homeShard(couponPolicy, userId);
+            long restored = redisScriptService.eval(RELEASE_SCRIPT,
+                    List.of(quantityKey(couponPolicy, shard), claimedKey(couponPolicy, shard)),
+                    userId);
+            if (restored > 0) {
+                couponSoldOutRegistry.clear(couponPolicy.getId());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to restore coupon quantity: policyId={}, userId={}", couponPolicy.getId(), userId, e);
+        }
+    }
+
+    /**
+     * Records users who already hold a coupon of the policy as claimed, so the issue scripts turn
+     * them away before taking stock. Adding a recorded user again is a no-op.
+     */
+    public void recordClaims(CouponPolicy couponPolicy, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> usersByClaimedKey = userIds.stream()
+                .collect(Collectors.groupingBy(userId -> claimedKey(couponPolicy, homeShard(couponPolicy, userId)),
+                        Collectors.mapping(String::valueOf, Collectors.toList())));
+        Instant expiry = Instant.ofEpochMilli(claimedExpiryMillis(couponPolicy));
+
+        RBatch batch = redissonClient.createBatch();
+        usersByClaimedKey.forEach((claimedKey, users) -> {
+            RSetAsync<String> claimed = batch.getSet(claimedKey, StringCodec.INSTANCE);
+            claimed.addAllAsync(users);
+            claimed.expireAsync(expiry);
+        });
+        batch.execute();
+    }
+
+    // Stock comes from the local lease; the claim is still one Redis round trip per issuance
+    private long decreaseLeasedQuantity(CouponPolicy couponPolicy, Long userId) {
+        if (!couponPolicy.isValidPeriod()) {
+            throw new IllegalStateException("Coupon issuance is not available during this period.");
+        }
+        long claimed = redisScriptService.eval(CLAIM_SCRIPT, List.of(CouponStockKeys.claimedKey(couponPolicy.getId())),
+                userId, claimedExpiryMillis(couponPolicy));
+        if (claimed == ALREADY_CLAIMED) {
+            throw new CouponIssueException("Coupon has already been issued to this user.");
+        }
+
+        long remaining = couponStockLeaseService.acquire(couponPolicy.getId());
+        if (remaining < 0) {
+            releaseClaim(couponPolicy, userId);
+            couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+            throw new CouponIssueException("All coupons have been issued.");
+        }
+        return remaining;
+    }
+
+    private boolean releaseClaim(CouponPolicy couponPolicy, Long userId) {
+        try {
+            return redissonClient.getSet(CouponStockKeys.claimedKey(couponPolicy.getId()), StringCodec.INSTANCE)
+                    .remove(String.valueOf(userId));
+        } catch (RuntimeException e) {
+            log.error("Failed to release coupon claim: policyId={}, userId={}", couponPolicy.getId(), userId, e);
+            return false;
+        }
+    }
+
+    private long decreaseShardedQuantity(CouponPolicy couponPolicy, Long userId) {
+        int shardCount = couponPolicy.getShardCount();
+        int homeShard = homeShard(couponPolicy, userId);
+        String homeClaimedKey = claimedKey(couponPolicy, homeShard);
+
+        long result = evalIssueScript(couponPolicy, quantityKey(couponPolicy, homeShard), homeClaimedKey, userId);
+        if (result != SOLD_OUT) {
+            if (result == 0) {
+                couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+            }
+            return result;
+        }
+
+        // Home shard drained: take stock from a sibling, then record the claim on the home shard
+        for (int offset = 1; offset < shardCount; offset++) {
+            int shard = (homeShard + offset) % shardCount;
+            String quantityKey = quantityKey(couponPolicy, shard);
+            long remaining = redisScriptService.eval(DECREASE_SCRIPT, List.of(quantityKey));
+            if (remaining == SOLD_OUT) {
+                continue;
+            }
+
+            long claimed = redisScriptService.eval(CLAIM_SCRIPT, List.of(homeClaimedKey), userId, claimedExpiryMillis(couponPolicy));
+            if (claimed == ALREADY_CLAIMED) {
+                redissonClient.getAtomicLong(quantityKey).incrementAndGet();
+                throw new CouponIssueException("Coupon has already been issued to this user.");
+            }
+            return remaining;
+        }
+
+        couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+        throw new CouponIssueException("All coupons have been issued.");
+    }
+
+    private long evalIssueScript(CouponPolicy couponPolicy, String quantityKey, String claimedKey, Long userId) {
+        long result = redisScriptService.eval(ISSUE_SCRIPT,
+                List.of(quantityKey, claimedKey),
+                userId,
+                toEpochMillis(couponPolicy.getStartTime()),
+                toEpochMillis(couponPolicy.getEndTime()),
+                claimedExpiryMillis(couponPolicy));
+
+        if (result == OUT_OF_PERIOD) {
+            throw new IllegalStateException("Coupon issuance is not available during this period.");
+        }
+        if (result == ALREADY_CLAIMED) {
+            throw new CouponIssueException("Coupon has already been issued to this user.");
+        }
+        return result;
+    }
+
+    private int homeShard(CouponPolicy couponPolicy, Long userId) {
+        return Math.floorMod(Long.hashCode(userId), couponPolicy.getShardCount());
+    }
+
+    private String quantityKey(CouponPolicy couponPolicy, int shard) {
+        if (couponPolicy.getIssuanceMode() != IssuanceMode.SHARDED) {
+            return CouponStockKeys.quantityKey(couponPolicy.getId());
+        }
+        return CouponStockKeys.shardQuantityKey(couponPolicy.getId(), shard);
+    }
+
+    private String claimedKey(CouponPolicy couponPolicy, int shard) {
+        if (couponPolicy.getIssuanceMode() != IssuanceMode.SHARDED) {
+            return CouponStockKeys.claimedKey(couponPolicy.getId());
+        }
+        return CouponStockKeys.shardClaimedKey(couponPolicy.getId(), shard);
+    }
+
+    private long claimedExpiryMillis(CouponPolicy couponPolicy) {
+        return toEpochMillis(couponPolicy.getEndTime()) + CLAIMED_RETENTION_MILLIS;
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.couponservice.service.v2;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Makes issuance safe to repeat. Client requests carry an {@code Idempotency-Key}, Kafka messages
+ * a message id; the first caller claims the key in Redis ({@code coupon:dedup:{scope}:{key}}) and
+ * records the result once it commits, kept for {@code ttl-hours}, so a repeat gets the recorded
+ * result without touching stock. A failed attempt releases its claim so it can be retried, and a
+ * claim whose owner died expires after {@code pending-ttl-seconds}.
+ * <p>
+ * Redis decides every claim. Keys completed on this instance are also remembered in a Bloom filter,
+ * which routes their retries to a plain read instead of the claim script; a false positive only
+ * costs that extra read.
+ */
+@Slf4j
+@Component
+public class IssuanceDeduplicator {
+
+    public static final long CLAIMED = -1;
+    public static final long IN_PROGRESS = 0;
+
+    private static final String DEDUP_KEY = "coupon:dedup:";
+
+    // KEYS[1] = dedup key
+    // ARGV[1] = pending claim ttl millis
+    // Returns the recorded result, 0 while the first attempt is running, or -1 when claimed now
+    private static final String CLAIM_SCRIPT = """
+            local result = redis.call('GET', KEYS[1])
+            if result then
+                return tonumber(result)
+            end
+            redis.call('SET', KEYS[1], '0', 'PX', ARGV[1])
+            return -1
+            """;
+
+    private final RedissonClient redissonClient;
+    private final RedisScriptService redisScriptService;
+    private final RecentKeyFilter completedKeys;
+    private final long ttlMillis;
+    private final long pendingTtlMillis;
+
+    public IssuanceDeduplicator(
+            RedissonClient redissonClient,
+            RedisScriptService redisScriptService,
+            @Value("${coupon.dedup.ttl-hours:24}") long ttlHours,
+            @Value("${coupon.dedup.pending-ttl-seconds:30}") long pendingTtlSeconds,
+            @Value("${coupon.dedup.local-filter-capacity:1000000}") int localFilterCapacity
+    ) {
+        this.redissonClient = redissonClient;
+        this.redisScriptService = redisScriptService;
+        this.completedKeys = new RecentKeyFilter(localFilterCapacity, 0.01);
+        this.ttlMillis = Duration.ofHours(ttlHours).toMillis();
+        this.pendingTtlMillis = Duration.ofSeconds(pendingTtlSeconds).toMillis();
+    }
+
+    /**
+     * Claims the key, returning {@link #CLAIMED} for the first caller, {@link #IN_PROGRESS}
+     * while that caller has not finished, and the recorded result after it succeeded.
+     */
+    public long claim(String scope, String key) {
+        String dedupKey = DEDUP_KEY + scope + ":" + key;
+        if (completedKeys.mightContain(dedupKey)) {
+            String result = bucket(dedupKey).get();
+            if (result != null && Long.parseLong(result) > 0) {
+                return Long.parseLong(result);
+            }
+        }
+        return redisScriptService.eval(CLAIM_SCRIPT, List.of(dedupKey), pendingTtlMillis);
+    }
+
+    /**
+     * Runs {@code action} under a claim that is completed with its result when the surrounding
+     * transaction commits and released when it rolls back or the action throws. Without a
+     * transaction the claim is settled as soon as the action returns.
+     */
+    public long runClaimed(String scope, String key, LongSupplier action) {
+        String dedupKey = DEDUP_KEY + scope + ":" + key;
+        long result;
+        try {
+            result = action.getAsLong();
+        } catch (RuntimeException e) {
+            release(dedupKey);
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(dedupKey, result);
+            return result;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    complete(dedupKey, result);
+                } else {
+                    release(dedupKey);
+                }
+            }
+        });
+        return result;
+    }
+
+    private void complete(String dedupKey, long result) {
+        try {
+            bucket(dedupKey).set(String.valueOf(result), ttlMillis, TimeUnit.MILLISECONDS);
+            completedKeys.put(dedupKey);
+        } catch (Exception e) {
+            // The claim expires on its own; until then repeats are told the first attempt is running
+            log.error("Failed to record issuance result for {}: {}", dedupKey, e.getMessage(), e);
+        }
+    }
+
+    private void release(String dedupKey) {
+        try {
+            bucket(dedupKey).delete();
+        } catch (Exception e) {
+            log.error("Failed to release issuance claim {}: {}", dedupKey, e.getMessage(), e);
+        }
+    }
+
+    private RBucket<String> bucket(String dedupKey) {
+        return redissonClient.getBucket(dedupKey, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.couponservice.service.v2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over recently seen keys with fixed memory. It keeps two generations and drops the
+ * older one once the current one holds {@code capacity} keys, so a key is remembered for at least
+ * {@code capacity} insertions after it was added. False positives are possible, false negatives
+ * within that window are not.
+ */
+class RecentKeyFilter {
+
+    private final int capacity;
+    private final int bitCount;
+    private final int hashCount;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    RecentKeyFilter(int capacity, double falsePositiveRate) {
+        this.capacity = capacity;
+        // Standard sizing: m = -n ln p / (ln 2)^2, k = m / n ln 2
+        double bits = -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitCount = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 63, Math.ceil(bits)));
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / (double) capacity * Math.log(2)));
+        this.current = new Generation(bitCount);
+        this.previous = new Generation(bitCount);
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        return current.contains(hash, hashCount) || previous.contains(hash, hashCount);
+    }
+
+    void put(String key) {
+        Generation generation = current;
+        generation.add(hash(key), hashCount);
+        if (generation.size() >= capacity) {
+            rotate(generation);
+        }
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (current == full) {
+            previous = full;
+            current = new Generation(bitCount);
+        }
+    }
+
+    // 64-bit FNV-1a, finished with the MurmurHash3 mixer so both halves are usable as hashes
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final int bitCount;
+        private final AtomicInteger size = new AtomicInteger();
+
+        private Generation(int bitCount) {
+            this.words = new AtomicLongArray((bitCount + 63) / 64);
+            this.bitCount = bitCount;
+        }
+
+        // Double hashing: bit i is h1 + i * h2, which behaves like k independent hashes
+        private void add(long hash, int hashCount) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = bit >>> 6;
+                long mask = 1L << bit;
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+            size.incrementAndGet();
+        }
+
+        private boolean contains(long hash, int hashCount) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int size() {
+            return size.get();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.couponservice.service.v2;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class RedisScriptService {
+
+    private final RedissonClient redissonClient;
+
+    private final Map<String, String> scriptShas = new ConcurrentHashMap<>();
+
+    public long eval(String script, List<Object> keys, Object... values) {
+        RScript rScript = redissonClient.getScript(StringCodec.INSTANCE);
+        String sha = scriptShas.computeIfAbsent(script, rScript::scriptLoad);
+        try {
+            return rScript.<Long>evalSha(RScript.Mode.READ_WRITE, sha, RScript.ReturnType.INTEGER, keys, values);
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT")) {
+                throw e;
+            }
+            // Script cache was flushed (restart or failover), fall back to EVAL and reload on next call
+            scriptShas.remove(script);
+            return rScript.<Long>eval(RScript.Mode.READ_WRITE, script, RScript.ReturnType.INTEGER, keys, values);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "coupon.kafka.batch-listener.enabled", havingValue = "true")
+public class CouponBatchConsumer {
+    private final CouponService couponService;
+    private final CouponProducer couponProducer;
+    private static final String TOPIC = "coupon-issue-requests";
+    private static final String GROUP_ID = "coupon-service";
+    private static final String CONTAINER_FACTORY = "couponBatchKafkaListenerContainerFactory";
+
+    @KafkaListener(topics = TOPIC, groupId = GROUP_ID, containerFactory = CONTAINER_FACTORY)
+    public void consumeCouponIssueRequests(List<CouponDto.IssueMessage> messages, Acknowledgment ack) {
+        log.info("Received {} coupon issue requests", messages.size());
+        try {
+            couponService.issueCoupons(messages);
+        } catch (Exception e) {
+            // One bad record should not sink the whole poll, so replay it record by record
+            log.warn("Batch coupon issuance failed, falling back to single issuance: {}", e.getMessage());
+            for (CouponDto.IssueMessage message : messages) {
+                try {
+                    couponService.issueCoupon(message);
+                } catch (Exception ex) {
+                    log.warn("Failed to process coupon issue request, sending it to retry: {}", ex.getMessage());
+                    couponProducer.sendToRetry(message);
+                }
+            }
+        }
+
+        // Commit the offsets of the whole batch
+        ack.acknowledge();
+    }
+}
@@ -3,6 +3,7 @@ package com.example.couponservice.service.v3;
 import com.example.couponservice.dto.v3.CouponDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
@@ -10,8 +11,10 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "coupon.kafka.batch-listener.enabled", havingValue = "false", matchIfMissing = true)
 public class CouponConsumer {
     private final CouponService couponService;
+    private final CouponProducer couponProducer;
     private static final String TOPIC = "coupon-issue-requests";
     private static final String GROUP_ID = "coupon-service";
     private static final String CONTAINER_FACTORY = "couponKafkaListenerContainerFactory";
@@ -21,11 +24,13 @@ public class CouponConsumer {
         try {
             log.info("Received coupon issue request: {}", message);
             couponService.issueCoupon(message);
-
-            // Commit the offset
-            ack.acknowledge();
         } catch (Exception e) {
-            log.error("Failed to process coupon issue request: {}", e.getMessage(), e);
+            // Retried off the main topic so one bad message cannot hold up the partition
+            log.warn("Failed to process coupon issue request, sending it to retry: {}", e.getMessage());
+            couponProducer.sendToRetry(message);
         }
+
+        // Commit the offset
+        ack.acknowledge();
     }
-}
\ No newline at end of file
+}
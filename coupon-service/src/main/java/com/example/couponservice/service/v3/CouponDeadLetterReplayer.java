@@ -0,0 +1,77 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replay tool for dead-lettered issue requests, exposed as the {@code couponDeadLetters} actuator
+ * endpoint ({@code POST /actuator/couponDeadLetters} with an optional {@code limit}). It reads the
+ * DLT with its own consumer group, so each dead letter is replayed at most once, and takes stock
+ * again for every request it puts back. Run it after the DLT handler has caught up, since that is
+ * what returned the stock in the first place.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "couponDeadLetters")
+@RequiredArgsConstructor
+public class CouponDeadLetterReplayer {
+
+    private static final String DLT_TOPIC = "coupon-issue-retries-dlt";
+    private static final String GROUP_ID = "coupon-service-dlt-replay";
+    private static final String CLIENT_ID_SUFFIX = "-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final ConsumerFactory<String, CouponDto.IssueMessage> couponConsumerFactory;
+    private final CouponService couponService;
+
+    @WriteOperation
+    public Map<String, Integer> replay(@Nullable Integer limit) {
+        int max = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        int replayed = 0;
+        int skipped = 0;
+
+        try (Consumer<String, CouponDto.IssueMessage> consumer =
+                     couponConsumerFactory.createConsumer(GROUP_ID, CLIENT_ID_SUFFIX)) {
+            consumer.subscribe(List.of(DLT_TOPIC));
+            while (replayed + skipped < max) {
+                ConsumerRecords<String, CouponDto.IssueMessage> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, CouponDto.IssueMessage> record : records) {
+                    if (replayed + skipped >= max) {
+                        break;
+                    }
+                    CouponDto.IssueMessage message = record.value();
+                    if (message != null && couponService.replayDeadLetter(message)) {
+                        replayed++;
+                    } else {
+                        skipped++;
+                    }
+                    // Committed one by one so a failure part way leaves the rest for the next run
+                    consumer.commitSync(Map.of(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1)));
+                }
+            }
+        }
+
+        log.info("Replayed dead-lettered coupon issue requests: replayed={}, skipped={}", replayed, skipped);
+        return Map.of("replayed", replayed, "skipped", skipped);
+    }
+}
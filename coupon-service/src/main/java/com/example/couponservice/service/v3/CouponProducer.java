@@ -2,25 +2,53 @@ package com.example.couponservice.service.v3;
 
 import com.example.couponservice.dto.v3.CouponDto;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-@Slf4j
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @Component
 @RequiredArgsConstructor
 public class CouponProducer {
     private static final String TOPIC = "coupon-issue-requests";
+    private static final String RETRY_TOPIC = "coupon-issue-retries";
+    private static final long SEND_TIMEOUT_SECONDS = 10;
     private final KafkaTemplate<String, CouponDto.IssueMessage> kafkaTemplate;
 
+    /**
+     * Sends an accepted issue request. Returns once Kafka has it, so the caller can give the stock
+     * back when it never arrives.
+     */
     public void sendCouponIssueRequest(CouponDto.IssueMessage message) {
-        kafkaTemplate.send(TOPIC, String.valueOf(message.getPolicyId()), message)
-                .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info("Sent message=[{}] with offset=[{}]", message, result.getRecordMetadata().offset());
-                    } else {
-                        log.error("Unable to send message=[{}] due to : {}", message, ex.getMessage());
-                    }
-                });
+        sendAndWait(TOPIC, message);
+    }
+
+    /**
+     * Hands a request the consumer could not process to the retry topics. Returns once Kafka has
+     * it, so the caller can commit the original offset.
+     */
+    public void sendToRetry(CouponDto.IssueMessage message) {
+        sendAndWait(RETRY_TOPIC, message);
+    }
+
+    /**
+     * Puts a replayed dead letter back on the request topic. Returns once Kafka has it.
+     */
+    public void resendCouponIssueRequest(CouponDto.IssueMessage message) {
+        sendAndWait(TOPIC, message);
+    }
+
+    private void sendAndWait(String topic, CouponDto.IssueMessage message) {
+        try {
+            kafkaTemplate.send(topic, String.valueOf(message.getPolicyId()), message)
+                    .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending to " + topic, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Unable to send message to " + topic, e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retries requests the main consumers could not process, off the request topic so they never hold
+ * up a partition. A request goes through {@code coupon-issue-retries}, then
+ * {@code coupon-issue-retries-retry-N} with exponentially growing delays, and after the last attempt
+ * to {@code coupon-issue-retries-dlt}, where its stock is given back. Failures that cannot succeed
+ * on a retry (unknown policy, coupon already in the database) go to the DLT directly.
+ * <p>
+ * Dead letters can be put back with the {@code couponDeadLetters} actuator endpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponRetryConsumer {
+    private final CouponService couponService;
+    private static final String TOPIC = "coupon-issue-retries";
+    private static final String GROUP_ID = "coupon-service";
+    private static final String CONTAINER_FACTORY = "couponKafkaListenerContainerFactory";
+
+    @RetryableTopic(
+            attempts = "${coupon.kafka.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${coupon.kafka.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${coupon.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${coupon.kafka.retry.max-delay-ms:30000}"),
+            exclude = {IllegalArgumentException.class, DataIntegrityViolationException.class},
+            traversingCauses = "true",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            // Compensation is idempotent, so a failed DLT delivery is simply handled again
+            dltStrategy = DltStrategy.ALWAYS_RETRY_ON_ERROR,
+            kafkaTemplate = "couponKafkaTemplate")
+    @KafkaListener(topics = TOPIC, groupId = GROUP_ID, containerFactory = CONTAINER_FACTORY)
+    public void consumeCouponIssueRetry(CouponDto.IssueMessage message, Acknowledgment ack) {
+        log.info("Retrying coupon issue request: {}", message);
+        couponService.issueCoupon(message);
+
+        // Commit the offset
+        ack.acknowledge();
+    }
+
+    @DltHandler
+    public void consumeDeadLetter(CouponDto.IssueMessage message, Acknowledgment ack) {
+        log.error("Coupon issue request dead-lettered, returning its stock: {}", message);
+        couponService.compensateDeadLetter(message);
+        ack.acknowledge();
+    }
+}
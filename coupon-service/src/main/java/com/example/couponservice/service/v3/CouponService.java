@@ -4,41 +4,114 @@ import com.example.couponservice.config.UserIdInterceptor;
 import com.example.couponservice.dto.v3.CouponDto;
 import com.example.couponservice.entity.Coupon;
 import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.entity.id.CouponCodeGenerator;
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import com.example.couponservice.enums.IssuanceMode;
 import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.exception.CouponNotFoundException;
+import com.example.couponservice.exception.DuplicateIssueRequestException;
+import com.example.couponservice.repository.CouponBulkRepository;
 import com.example.couponservice.repository.CouponRepository;
 import com.example.couponservice.service.v2.CouponPolicyService;
+import com.example.couponservice.service.v2.CouponSoldOutRegistry;
 import com.example.couponservice.service.v2.CouponStateService;
+import com.example.couponservice.service.v2.CouponStockService;
+import com.example.couponservice.service.v2.IssuanceDeduplicator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service("couponServiceV3")
 @RequiredArgsConstructor
 public class CouponService {
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_LOCK_KEY = "coupon:lock:";
     private static final long LOCK_WAIT_TIME = 3L;
     private static final long LOCK_LEASE_TIME = 5L;
 
     private final RedissonClient redissonClient;
     private final CouponRepository couponRepository;
+    private final CouponBulkRepository couponBulkRepository;
     private final CouponProducer couponProducer;
     private final CouponStateService couponStateService;
     private final CouponPolicyService couponPolicyService;
+    private final CouponStockService couponStockService;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final IssuanceDeduplicator issuanceDeduplicator;
+    private final SnowflakeIdAllocator snowflakeIdAllocator;
+    private final IssuanceResultService issuanceResultService;
 
-    public void requestCouponIssue(CouponDto.IssueRequest request) {
-        String quantityKey = COUPON_QUANTITY_KEY + request.getCouponPolicyId();
-        String lockKey = COUPON_LOCK_KEY + request.getCouponPolicyId();
+    private static final String REQUEST_SCOPE = "request-v3:";
+    private static final String MESSAGE_SCOPE = "message";
+
+    /**
+     * Accepts an issuance request. With an {@code idempotencyKey}, a repeat of an accepted request
+     * is a no-op and a repeat of one still being accepted is refused with 409.
+     *
+     * @return the request id to follow the result with; a repeat gets the original one
+     */
+    public long requestCouponIssue(CouponDto.IssueRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            long messageId = snowflakeIdAllocator.nextId();
+            requestCouponIssue(request, messageId);
+            return messageId;
+        }
+
+        String scope = REQUEST_SCOPE + UserIdInterceptor.getCurrentUserId();
+        long claimed = issuanceDeduplicator.claim(scope, idempotencyKey);
+        if (claimed > 0) {
+            log.info("Ignoring repeated coupon issue request: key={}, messageId={}", idempotencyKey, claimed);
+            return claimed;
+        }
+        if (claimed == IssuanceDeduplicator.IN_PROGRESS) {
+            throw new DuplicateIssueRequestException("A request with this Idempotency-Key is already in progress.");
+        }
+
+        return issuanceDeduplicator.runClaimed(scope, idempotencyKey, () -> {
+            long messageId = snowflakeIdAllocator.nextId();
+            requestCouponIssue(request, messageId);
+            return messageId;
+        });
+    }
+
+    private void requestCouponIssue(CouponDto.IssueRequest request, long messageId) {
+        if (couponSoldOutRegistry.isSoldOut(request.getCouponPolicyId())) {
+            throw new CouponIssueException("All coupons have been issued.");
+        }
+
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
+        if (couponPolicy == null) {
+            throw new IllegalArgumentException("Coupon policy not found.");
+        }
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.DATABASE) {
+            throw new CouponIssueException("This coupon policy is issued through /api/v1/coupons only.");
+        }
+
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        if (couponPolicy.getIssuanceMode() == IssuanceMode.LOCK) {
+            decreaseQuantityWithLock(couponPolicy, userId);
+        } else {
+            couponStockService.decreaseQuantity(couponPolicy, userId);
+        }
+        sendCouponIssueRequest(couponPolicy, messageId, userId);
+    }
+
+    private void decreaseQuantityWithLock(CouponPolicy couponPolicy, Long userId) {
+        String lockKey = COUPON_LOCK_KEY + couponPolicy.getId();
         RLock lock = redissonClient.getLock(lockKey);
 
         try {
@@ -47,32 +120,13 @@ public class CouponService {
                 throw new CouponIssueException("Too many coupon issuance requests. Please try again later.");
             }
 
-            CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
-            if (couponPolicy == null) {
-                throw new IllegalArgumentException("Coupon policy not found.");
-            }
-
             LocalDateTime now = LocalDateTime.now();
             if (now.isBefore(couponPolicy.getStartTime()) || now.isAfter(couponPolicy.getEndTime())) {
                 throw new IllegalStateException("Coupon issuance is not available during this period.");
             }
 
-            // 수량 체크 및 감소
-            RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
-            long remainingQuantity = atomicQuantity.decrementAndGet();
-
-            if (remainingQuantity < 0) {
-                atomicQuantity.incrementAndGet();
-                throw new CouponIssueException("All coupons have been issued.");
-            }
-
-            // Send coupon issuance request message via Kafka
-            couponProducer.sendCouponIssueRequest(
-                    CouponDto.IssueMessage.builder()
-                            .policyId(request.getCouponPolicyId())
-                            .userId(UserIdInterceptor.getCurrentUserId())
-                            .build()
-            );
+            // The claimed-user check and the decrement run in one script, the lock only serializes callers
+            couponStockService.decreaseQuantity(couponPolicy, userId);
 
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -85,9 +139,42 @@ public class CouponService {
 
     }
 
+    // The stock is already taken, so a request Kafka never got gives it and the user's claim back
+    private void sendCouponIssueRequest(CouponPolicy couponPolicy, long messageId, Long userId) {
+        try {
+            couponProducer.sendCouponIssueRequest(
+                    CouponDto.IssueMessage.builder()
+                            .messageId(messageId)
+                            .policyId(couponPolicy.getId())
+                            .userId(userId)
+                            .build()
+            );
+        } catch (RuntimeException e) {
+            log.error("Failed to send coupon issue request {}: {}", messageId, e.getMessage());
+            couponStockService.restoreQuantity(couponPolicy, userId);
+            issuanceResultService.recordFailed(messageId, userId, "The coupon could not be issued.");
+            throw new CouponIssueException("Coupon issuance is temporarily unavailable. Please try again later.", e);
+        }
+    }
+
+    public CouponDto.IssueResult getIssueResult(Long requestId) {
+        return issuanceResultService.getResult(requestId, UserIdInterceptor.getCurrentUserId());
+    }
+
+    public SseEmitter streamIssueResult(Long requestId) {
+        return issuanceResultService.stream(requestId, UserIdInterceptor.getCurrentUserId());
+    }
+
+    /**
+     * Issues the coupon a message asks for, once per message id even if Kafka redelivers it.
+     */
     @Transactional
     public void issueCoupon(CouponDto.IssueMessage message) {
         try {
+            if (!claimMessage(message)) {
+                return;
+            }
+
             CouponPolicy policy = couponPolicyService.getCouponPolicy(message.getPolicyId());
             if (policy == null) {
                 throw new IllegalArgumentException("Coupon policy not found.");
@@ -96,9 +183,10 @@ public class CouponService {
             Coupon coupon = couponRepository.save(Coupon.builder()
                     .couponPolicy(policy)
                     .userId(message.getUserId())
-                    .couponCode(generateCouponCode())
+                    .couponCode(couponCodeGenerator.generate())
                     .build());
 
+            issuanceResultService.recordIssued(message.getMessageId(), coupon);
             log.info("Coupon issued successfully: policyId={}, userId={}", message.getPolicyId(), message.getUserId());
 
         } catch (Exception e) {
@@ -107,6 +195,110 @@ public class CouponService {
         }
     }
 
+    // Claims the message id for this transaction; false if an earlier delivery already issued it
+    private boolean claimMessage(CouponDto.IssueMessage message) {
+        if (message.getMessageId() == null) {
+            return true;
+        }
+        String messageId = String.valueOf(message.getMessageId());
+        long claimed = issuanceDeduplicator.claim(MESSAGE_SCOPE, messageId);
+        if (claimed > 0) {
+            log.info("Skipping redelivered coupon issue request: messageId={}", messageId);
+            return false;
+        }
+        if (claimed == IssuanceDeduplicator.IN_PROGRESS) {
+            throw new DuplicateIssueRequestException("Coupon issue request " + messageId + " is already being processed.");
+        }
+        issuanceDeduplicator.runClaimed(MESSAGE_SCOPE, messageId, message::getMessageId);
+        return true;
+    }
+
+    @Transactional
+    public int issueCoupons(List<CouponDto.IssueMessage> messages) {
+        Map<Long, CouponPolicy> policies = new HashMap<>();
+        List<Coupon> coupons = new ArrayList<>(messages.size());
+        Map<Long, Coupon> couponsByMessageId = new HashMap<>();
+        Set<Long> batchMessageIds = new HashSet<>();
+        for (CouponDto.IssueMessage message : messages) {
+            // A producer retry can put one request in a poll twice; the second copy would find the first's claim
+            if (message.getMessageId() != null && !batchMessageIds.add(message.getMessageId())) {
+                log.info("Skipping repeated coupon issue request in batch: messageId={}", message.getMessageId());
+                continue;
+            }
+            if (!claimMessage(message)) {
+                continue;
+            }
+            CouponPolicy policy = policies.computeIfAbsent(message.getPolicyId(), couponPolicyService::getCouponPolicy);
+            if (policy == null) {
+                throw new IllegalArgumentException("Coupon policy not found.");
+            }
+
+            // Ids are assigned here rather than by the insert so the results can carry them
+            Coupon coupon = Coupon.builder()
+                    .id(snowflakeIdAllocator.nextId())
+                    .couponPolicy(policy)
+                    .userId(message.getUserId())
+                    .couponCode(couponCodeGenerator.generate())
+                    .build();
+            coupons.add(coupon);
+            if (message.getMessageId() != null) {
+                couponsByMessageId.put(message.getMessageId(), coupon);
+            }
+        }
+
+        int issued = couponBulkRepository.insertAll(coupons);
+        couponsByMessageId.forEach(issuanceResultService::recordIssued);
+        log.info("Coupons issued in batch: count={}, policies={}", issued, policies.keySet());
+        return issued;
+    }
+
+    /**
+     * Undoes what accepting a dead-lettered request took: the stock unit and the user's claim go
+     * back and the request is reported failed. Skipped when a coupon was issued after all.
+     */
+    public void compensateDeadLetter(CouponDto.IssueMessage message) {
+        if (couponRepository.existsByCouponPolicyIdAndUserId(message.getPolicyId(), message.getUserId())) {
+            log.warn("Dead-lettered coupon issue request was issued after all: {}", message);
+            return;
+        }
+
+        CouponPolicy policy = couponPolicyService.getCouponPolicy(message.getPolicyId());
+        if (policy != null) {
+            couponStockService.restoreQuantity(policy, message.getUserId());
+        }
+        issuanceResultService.recordFailed(message.getMessageId(), message.getUserId(), "The coupon could not be issued.");
+    }
+
+    /**
+     * Accepts a dead-lettered request again: takes stock for it and puts it back on the request
+     * topic under its original message id.
+     *
+     * @return false if it can no longer be issued, e.g. the stock is gone or the user has the coupon
+     */
+    public boolean replayDeadLetter(CouponDto.IssueMessage message) {
+        if (couponRepository.existsByCouponPolicyIdAndUserId(message.getPolicyId(), message.getUserId())) {
+            return false;
+        }
+        CouponPolicy policy = couponPolicyService.getCouponPolicy(message.getPolicyId());
+        if (policy == null) {
+            return false;
+        }
+
+        try {
+            couponStockService.decreaseQuantity(policy, message.getUserId());
+        } catch (CouponIssueException | IllegalStateException e) {
+            log.info("Not replaying coupon issue request {}: {}", message.getMessageId(), e.getMessage());
+            return false;
+        }
+        try {
+            couponProducer.resendCouponIssueRequest(message);
+        } catch (RuntimeException e) {
+            couponStockService.restoreQuantity(policy, message.getUserId());
+            throw e;
+        }
+        return true;
+    }
+
     @Transactional
     public Coupon useCoupon(Long couponId, Long orderId) {
         Coupon coupon = couponRepository.findByIdWithLock(couponId)
@@ -132,8 +324,4 @@ public class CouponService {
 
         return coupon;
     }
-
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
-    }
 }
@@ -0,0 +1,221 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.entity.Coupon;
+import com.example.couponservice.enums.IssueStatus;
+import com.example.couponservice.service.v2.RedisScriptService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outcomes of async v3 issue requests, keyed by request (message) id. The consumer records each
+ * outcome under {@code coupon:issue-result:{requestId}} for {@code ttl-seconds} and announces it
+ * on the {@code coupon:issue-results} topic, so whichever instance holds the client's event stream
+ * can push it. Nothing is written when a request is accepted: an id without a result reads as
+ * pending, and so does another user's request.
+ */
+@Slf4j
+@Component
+public class IssuanceResultService {
+
+    private static final String RESULT_KEY = "coupon:issue-result:";
+    private static final String RESULT_TOPIC = "coupon:issue-results";
+    private static final String RESULT_EVENT = "result";
+
+    // KEYS[1] = result key
+    // ARGV[1] = result json, ARGV[2] = ttl millis, ARGV[3] = channel
+    private static final String RECORD_SCRIPT = """
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return redis.call('PUBLISH', ARGV[3], ARGV[1])
+            """;
+
+    private final RedissonClient redissonClient;
+    private final RedisScriptService redisScriptService;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final long streamTimeoutMillis;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private int listenerId = -1;
+
+    public IssuanceResultService(
+            RedissonClient redissonClient,
+            RedisScriptService redisScriptService,
+            ObjectMapper objectMapper,
+            @Value("${coupon.issue-result.ttl-seconds:300}") long ttlSeconds,
+            @Value("${coupon.issue-result.stream-timeout-millis:30000}") long streamTimeoutMillis
+    ) {
+        this.redissonClient = redissonClient;
+        this.redisScriptService = redisScriptService;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = topic().addListener(String.class, (channel, payload) -> {
+            CouponDto.IssueResult result = read(payload);
+            if (result != null) {
+                deliver(result);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != -1) {
+            topic().removeListener(listenerId);
+        }
+        // Clients reconnect to another instance or fall back to the status endpoint
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter().complete()));
+        subscribers.clear();
+    }
+
+    public void recordIssued(Long requestId, Coupon coupon) {
+        record(CouponDto.IssueResult.builder()
+                .requestId(requestId)
+                .userId(coupon.getUserId())
+                .status(IssueStatus.ISSUED)
+                .coupon(CouponDto.CouponResponse.from(coupon))
+                .build());
+    }
+
+    public void recordFailed(Long requestId, Long userId, String reason) {
+        record(CouponDto.IssueResult.builder()
+                .requestId(requestId)
+                .userId(userId)
+                .status(IssueStatus.FAILED)
+                .reason(reason)
+                .build());
+    }
+
+    public CouponDto.IssueResult getResult(Long requestId, Long userId) {
+        CouponDto.IssueResult result;
+        try {
+            result = read(redissonClient.<String>getBucket(RESULT_KEY + requestId, StringCodec.INSTANCE).get());
+        } catch (RuntimeException e) {
+            log.error("Failed to read coupon issue result: requestId={}", requestId, e);
+            result = null;
+        }
+        if (result == null || !userId.equals(result.getUserId())) {
+            return CouponDto.IssueResult.pending(requestId);
+        }
+        return result;
+    }
+
+    /**
+     * Opens an event stream that sends one {@code result} event once the request is settled and
+     * then closes. A stream that times out first closes without an event.
+     */
+    public SseEmitter stream(Long requestId, Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.computeIfAbsent(requestId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> unregister(requestId, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unregister(requestId, subscriber));
+
+        // Registered before reading, so a result recorded in between still reaches the stream
+        CouponDto.IssueResult result = getResult(requestId, userId);
+        if (result.getStatus() != IssueStatus.PENDING) {
+            deliver(result);
+        }
+        return emitter;
+    }
+
+    // Deferred to commit so a result never points at a coupon that was rolled back
+    private void record(CouponDto.IssueResult result) {
+        if (result.getRequestId() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(result);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(result);
+            }
+        });
+    }
+
+    private void publish(CouponDto.IssueResult result) {
+        try {
+            redisScriptService.eval(RECORD_SCRIPT, List.of(RESULT_KEY + result.getRequestId()),
+                    objectMapper.writeValueAsString(result), ttlMillis, RESULT_TOPIC);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The coupon is issued either way; the client finds it through the coupon list
+            log.error("Failed to record coupon issue result: requestId={}", result.getRequestId(), e);
+        }
+    }
+
+    private void deliver(CouponDto.IssueResult result) {
+        Set<Subscriber> waiting = subscribers.get(result.getRequestId());
+        if (waiting == null) {
+            return;
+        }
+        for (Subscriber subscriber : waiting) {
+            // Removing first makes sure each stream gets the result once
+            if (subscriber.userId().equals(result.getUserId()) && waiting.remove(subscriber)) {
+                send(subscriber.emitter(), result);
+            }
+        }
+        subscribers.computeIfPresent(result.getRequestId(), (id, set) -> set.isEmpty() ? null : set);
+    }
+
+    private void send(SseEmitter emitter, CouponDto.IssueResult result) {
+        try {
+            emitter.send(SseEmitter.event().name(RESULT_EVENT).data(result, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Coupon issue result stream closed before delivery: requestId={}", result.getRequestId());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unregister(Long requestId, Subscriber subscriber) {
+        subscribers.computeIfPresent(requestId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private CouponDto.IssueResult read(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, CouponDto.IssueResult.class);
+        } catch (JsonProcessingException e) {
+            log.error("Unreadable coupon issue result: {}", payload, e);
+            return null;
+        }
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(RESULT_TOPIC, StringCodec.INSTANCE);
+    }
+
+    private record Subscriber(Long userId, SseEmitter emitter) {
+    }
+}
@@ -0,0 +1,29 @@
+-- Adds uk_coupons_policy_user to a coupons table created before it existed.
+-- Run once with issuance paused, before starting the version that declares the constraint;
+-- ddl-auto cannot add it while duplicates exist and only logs the failure.
+
+-- 1. Review the duplicate (policy, user) pairs
+SELECT coupon_policy_id, user_id, COUNT(*) AS coupons
+FROM coupons
+GROUP BY coupon_policy_id, user_id
+HAVING COUNT(*) > 1;
+
+-- 2. Keep one coupon per pair: the used one if there is one, else the oldest.
+--    Unused duplicates are deleted; two used coupons for one pair are left for a manual decision,
+--    and step 3 fails until they are resolved.
+DELETE FROM coupons
+WHERE id IN (
+    SELECT id FROM (
+        SELECT duplicate.id
+        FROM coupons duplicate
+        JOIN coupons kept
+          ON kept.coupon_policy_id = duplicate.coupon_policy_id
+         AND kept.user_id = duplicate.user_id
+         AND kept.id <> duplicate.id
+        WHERE duplicate.status <> 'USED'
+          AND (kept.status = 'USED' OR kept.id < duplicate.id)
+    ) duplicates
+);
+
+-- 3. Add the constraint
+ALTER TABLE coupons ADD CONSTRAINT uk_coupons_policy_user UNIQUE (coupon_policy_id, user_id);
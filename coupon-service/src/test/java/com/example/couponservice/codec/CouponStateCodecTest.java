@@ -0,0 +1,67 @@
+package com.example.couponservice.codec;
+
+import com.example.couponservice.dto.v1.CouponDto;
+import com.example.couponservice.enums.CouponStatus;
+import com.example.couponservice.enums.DiscountType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CouponStateCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final CouponStateCodec binaryCodec = new CouponStateCodec(objectMapper, CacheFormat.BINARY);
+    private final CouponStateCodec jsonCodec = new CouponStateCodec(objectMapper, CacheFormat.JSON);
+
+    private CouponDto.Response coupon;
+
+    @BeforeEach
+    void setUp() {
+        coupon = CouponDto.Response.builder()
+                .id(123456789012345L)
+                .userId(42L)
+                .couponCode("HK3MYQA6PEENHTRM")
+                .discountType(DiscountType.PERCENTAGE)
+                .discountValue(15)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(5000)
+                .validFrom(LocalDateTime.of(2026, 1, 1, 0, 0))
+                .validUntil(LocalDateTime.of(2026, 12, 31, 23, 59, 59, 999_000_000))
+                .status(CouponStatus.AVAILABLE)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Binary - Round Trips Including Null Fields")
+    void binary_RoundTrip() {
+        // When
+        byte[] payload = binaryCodec.encode(coupon);
+
+        // Then
+        assertThat(binaryCodec.decode(payload)).usingRecursiveComparison().isEqualTo(coupon);
+        assertThat(payload.length).isLessThan(jsonCodec.encode(coupon).length / 3);
+    }
+
+    @Test
+    @DisplayName("Decode - Reads Payloads Written In Either Format")
+    void decode_ReadsBothFormats() {
+        // When & Then
+        assertThat(binaryCodec.decode(jsonCodec.encode(coupon))).usingRecursiveComparison().isEqualTo(coupon);
+        assertThat(jsonCodec.decode(binaryCodec.encode(coupon))).usingRecursiveComparison().isEqualTo(coupon);
+    }
+
+    @Test
+    @DisplayName("Decode Fail - Unknown Version")
+    void decode_Fail_UnknownVersion() {
+        // When & Then
+        assertThatThrownBy(() -> binaryCodec.decode(new byte[]{9, 1, 2}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unsupported cache payload version: 9");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.couponservice.config;
+
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import com.example.couponservice.service.v2.RedisScriptService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NodeIdLeaseTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RedisScriptService redisScriptService;
+
+    @Mock
+    private RAtomicLong nodeSequence;
+
+    @Mock
+    private RBucket<Object> takenNode;
+
+    @Mock
+    private RBucket<Object> freeNode;
+
+    private NodeIdLease nodeIdLease;
+
+    @BeforeEach
+    void setUp() {
+        nodeIdLease = new NodeIdLease(redissonClient, redisScriptService, 30000);
+        when(redissonClient.getAtomicLong("coupon:id:node-sequence")).thenReturn(nodeSequence);
+    }
+
+    @Test
+    @DisplayName("Acquire - Skips Node Ids Still Leased By Another Node")
+    void acquire_SkipsLeasedNodeId() {
+        // Given
+        when(nodeSequence.getAndIncrement()).thenReturn(1023L);
+        when(redissonClient.getBucket(eq("coupon:id:node:1023"), any(Codec.class))).thenReturn(takenNode);
+        when(redissonClient.getBucket(eq("coupon:id:node:0"), any(Codec.class))).thenReturn(freeNode);
+        when(takenNode.trySet(anyString(), eq(30000L), eq(TimeUnit.MILLISECONDS))).thenReturn(false);
+        when(freeNode.trySet(anyString(), eq(30000L), eq(TimeUnit.MILLISECONDS))).thenReturn(true);
+
+        // When
+        long nodeId = nodeIdLease.acquire();
+
+        // Then
+        assertThat(nodeId).isZero();
+        assertThat(nodeIdLease.acquire()).isZero();
+        verify(nodeSequence, times(1)).getAndIncrement();
+    }
+
+    @Test
+    @DisplayName("Renew And Release - Only Touch The Leased Node Id")
+    void renewAndRelease() {
+        // Given
+        when(nodeSequence.getAndIncrement()).thenReturn(5L);
+        when(redissonClient.getBucket(eq("coupon:id:node:5"), any(Codec.class))).thenReturn(freeNode);
+        when(freeNode.trySet(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(redisScriptService.eval(anyString(), anyList(), any(Object[].class))).thenReturn(1L);
+        nodeIdLease.acquire();
+
+        // When
+        nodeIdLease.renew();
+        nodeIdLease.release();
+
+        // Then
+        verify(redisScriptService).eval(contains("PEXPIRE"), eq(List.of("coupon:id:node:5")), any(Object[].class));
+        verify(redisScriptService).eval(contains("DEL"), eq(List.of("coupon:id:node:5")), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Renew - Lost Lease Moves The Allocator To A Free Node Id")
+    void renew_LostLease_Reacquires() {
+        // Given
+        SnowflakeIdAllocator allocator = leasedAllocator(6L);
+        when(redissonClient.getBucket(eq("coupon:id:node:6"), any(Codec.class))).thenReturn(takenNode);
+        when(takenNode.trySet(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(redisScriptService.eval(contains("PEXPIRE"), anyList(), any(Object[].class))).thenReturn(0L);
+
+        // When
+        nodeIdLease.renew();
+
+        // Then
+        assertThat(allocator.getNodeId()).isEqualTo(6);
+        assertThat((allocator.nextId() >>> 12) & SnowflakeIdAllocator.MAX_NODE_ID).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Renew Fail - Lost Lease With No Free Node Id Stops Allocation")
+    void renew_Fail_LostLeaseStopsAllocation() {
+        // Given
+        SnowflakeIdAllocator allocator = leasedAllocator(6L);
+        when(redissonClient.getBucket(argThat(key -> !"coupon:id:node:5".equals(key)), any(Codec.class)))
+                .thenReturn(takenNode);
+        when(redisScriptService.eval(contains("PEXPIRE"), anyList(), any(Object[].class))).thenReturn(0L);
+
+        // When
+        nodeIdLease.renew();
+
+        // Then
+        assertThatThrownBy(allocator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("lease expired");
+    }
+
+    // Leases node id 5 on the first acquire and starts any later one from the given sequence
+    private SnowflakeIdAllocator leasedAllocator(long next) {
+        when(nodeSequence.getAndIncrement()).thenReturn(5L, next);
+        when(redissonClient.getBucket(eq("coupon:id:node:5"), any(Codec.class))).thenReturn(freeNode);
+        when(freeNode.trySet(anyString(), anyLong(), any(TimeUnit.class))).thenReturn(true, false);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(nodeIdLease.acquire());
+        nodeIdLease.guard(allocator);
+        allocator.nextId();
+        return allocator;
+    }
+}
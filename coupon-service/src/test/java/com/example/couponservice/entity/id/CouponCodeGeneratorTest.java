@@ -0,0 +1,44 @@
+package com.example.couponservice.entity.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CouponCodeGeneratorTest {
+
+    private final CouponCodeGenerator couponCodeGenerator = new CouponCodeGenerator(new SnowflakeIdAllocator(1));
+
+    @Test
+    @DisplayName("Generate - Codes Are Unique And Pass The Checksum")
+    void generate_UniqueAndValid() {
+        // When
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            codes.add(couponCodeGenerator.generate());
+        }
+
+        // Then
+        assertThat(codes).hasSize(100_000);
+        assertThat(codes).allSatisfy(code -> {
+            assertThat(code).hasSize(CouponCodeGenerator.CODE_LENGTH);
+            assertThat(CouponCodeGenerator.isValid(code)).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("Is Valid - Rejects A Mistyped Symbol")
+    void isValid_RejectsMistypedSymbol() {
+        // Given
+        String code = couponCodeGenerator.generate();
+        char replacement = code.charAt(5) == 'A' ? 'B' : 'A';
+        String mistyped = code.substring(0, 5) + replacement + code.substring(6);
+
+        // When & Then
+        assertThat(CouponCodeGenerator.isValid(mistyped)).isFalse();
+        assertThat(CouponCodeGenerator.isValid(code.toLowerCase())).isFalse();
+    }
+}
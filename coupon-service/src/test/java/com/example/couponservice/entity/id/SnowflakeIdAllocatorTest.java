@@ -0,0 +1,143 @@
+package com.example.couponservice.entity.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdAllocatorTest {
+
+    private static final long NOW = SnowflakeIdAllocator.EPOCH + 1_000_000;
+
+    @Test
+    @DisplayName("Next Id - Strictly Increasing And Carries The Node Id")
+    void nextId_Monotonic() {
+        // Given
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(7);
+
+        // When & Then
+        long previous = allocator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long id = allocator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(nodeId(id)).isEqualTo(7);
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Next Id - Short Clock Rollback Waits For The Clock To Catch Up")
+    void nextId_ShortClockRollback() {
+        // Given
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, clock(NOW, NOW - 3, NOW - 1, NOW));
+        long first = allocator.nextId();
+
+        // When
+        long second = allocator.nextId();
+
+        // Then
+        assertThat(second).isGreaterThan(first);
+        assertThat(timestamp(second)).isEqualTo(NOW);
+        assertThat(sequence(second)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Next Id Fail - Long Clock Rollback")
+    void nextId_Fail_LongClockRollback() {
+        // Given
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, clock(NOW, NOW - 10));
+        allocator.nextId();
+
+        // When & Then
+        assertThatThrownBy(allocator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Clock moved backwards by 10ms.");
+    }
+
+    @Test
+    @DisplayName("Next Id - Sequence Overflow Moves To The Next Millisecond")
+    void nextId_SequenceOverflow() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1,
+                () -> calls.incrementAndGet() <= 4097 ? NOW : NOW + 1);
+        long last = 0;
+        for (int i = 0; i < 4096; i++) {
+            last = allocator.nextId();
+        }
+
+        // When
+        long overflowed = allocator.nextId();
+
+        // Then
+        assertThat(timestamp(last)).isEqualTo(NOW);
+        assertThat(sequence(last)).isEqualTo(4095);
+        assertThat(overflowed).isGreaterThan(last);
+        assertThat(timestamp(overflowed)).isEqualTo(NOW + 1);
+        assertThat(sequence(overflowed)).isZero();
+    }
+
+    @Test
+    @DisplayName("Next Id Fail - Node Id Lease Expired")
+    void nextId_Fail_LeaseExpired() {
+        // Given
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, clock(NOW, NOW + 10));
+        allocator.leaseUntil(NOW + 10);
+        allocator.nextId();
+
+        // When & Then
+        assertThatThrownBy(allocator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("ID allocator node id lease expired: nodeId=1");
+    }
+
+    @Test
+    @DisplayName("Reassign - Continues With The New Node Id")
+    void reassign() {
+        // Given
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, clock(NOW, NOW));
+        long before = allocator.nextId();
+        allocator.leaseUntil(0);
+
+        // When
+        allocator.reassign(2, NOW + 10);
+        long after = allocator.nextId();
+
+        // Then
+        assertThat(nodeId(after)).isEqualTo(2);
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Create Fail - Node Id Out Of Range")
+    void create_Fail_NodeIdOutOfRange() {
+        // When & Then
+        assertThatThrownBy(() -> new SnowflakeIdAllocator(SnowflakeIdAllocator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Returns the given times in order, then keeps returning the last one
+    private static LongSupplier clock(Long... times) {
+        Deque<Long> remaining = new ArrayDeque<>(List.of(times));
+        return () -> remaining.size() > 1 ? remaining.poll() : remaining.peek();
+    }
+
+    private static long timestamp(long id) {
+        return (id >>> 22) + SnowflakeIdAllocator.EPOCH;
+    }
+
+    private static long nodeId(long id) {
+        return (id >>> 12) & SnowflakeIdAllocator.MAX_NODE_ID;
+    }
+
+    private static long sequence(long id) {
+        return id & 0xFFF;
+    }
+}
@@ -4,11 +4,17 @@ import com.example.couponservice.config.UserIdInterceptor;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.entity.Coupon;
 import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.entity.id.CouponCodeGenerator;
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
 import com.example.couponservice.enums.CouponStatus;
 import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssuanceMode;
+import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.exception.CouponNotFoundException;
+import com.example.couponservice.exception.CouponPolicyNotFoundException;
 import com.example.couponservice.repository.CouponPolicyRepository;
 import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.v2.CouponPolicyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,7 +22,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -40,6 +48,10 @@ class CouponServiceTest {
     private CouponRepository couponRepository;
     @Mock
     private CouponPolicyRepository couponPolicyRepository;
+    @Mock
+    private CouponPolicyService couponPolicyService;
+    @Spy
+    private CouponCodeGenerator couponCodeGenerator = new CouponCodeGenerator(new SnowflakeIdAllocator(1));
 
     private CouponPolicy couponPolicy;
     private Coupon coupon;
@@ -77,9 +89,10 @@ class CouponServiceTest {
                 .couponPolicyId(1L)
                 .build();
 
+        when(couponPolicyService.getCouponPolicy(any())).thenReturn(couponPolicy);
         when(couponPolicyRepository.findByIdWithLock(any())).thenReturn(Optional.of(couponPolicy));
         when(couponRepository.countByCouponPolicyId(any())).thenReturn(0L);
-        when(couponRepository.save(any())).thenReturn(coupon);
+        when(couponRepository.saveAndFlush(any())).thenReturn(coupon);
 
         try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
             mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
@@ -90,7 +103,110 @@ class CouponServiceTest {
             // Then
             assertThat(response.getId()).isEqualTo(TEST_COUPON_ID);
             assertThat(response.getUserId()).isEqualTo(TEST_USER_ID);
-            verify(couponRepository).save(any());
+            verify(couponRepository).saveAndFlush(any());
+            verify(couponPolicyRepository, never()).findById(any());
+        }
+    }
+
+    @Test
+    @DisplayName("Issue Coupon Success - Database Mode Claims Stock Without Lock Or Count")
+    void issueCoupon_Success_DatabaseMode() {
+        // Given
+        CouponPolicy databasePolicy = CouponPolicy.builder()
+                .id(1L)
+                .discountType(DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .totalQuantity(100)
+                .issuanceMode(IssuanceMode.DATABASE)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(1L)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(1L)).thenReturn(databasePolicy);
+        when(couponPolicyRepository.incrementIssuedQuantity(1L)).thenReturn(1);
+        when(couponRepository.saveAndFlush(any())).thenReturn(coupon);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            CouponDto.Response response = couponService.issueCoupon(request);
+
+            // Then
+            assertThat(response.getId()).isEqualTo(TEST_COUPON_ID);
+            verify(couponPolicyRepository, never()).findById(any());
+            verify(couponPolicyRepository, never()).findByIdWithLock(any());
+            verify(couponRepository, never()).countByCouponPolicyId(any());
+        }
+    }
+
+    @Test
+    @DisplayName("Issue Coupon Fail - Database Mode Sold Out")
+    void issueCoupon_Fail_DatabaseModeSoldOut() {
+        // Given
+        CouponPolicy databasePolicy = CouponPolicy.builder()
+                .id(1L)
+                .totalQuantity(100)
+                .issuanceMode(IssuanceMode.DATABASE)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(1L)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(1L)).thenReturn(databasePolicy);
+        when(couponPolicyRepository.incrementIssuedQuantity(1L)).thenReturn(0);
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("All coupons have been issued.");
+        verify(couponRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Issue Coupon Fail - Policy Not Found")
+    void issueCoupon_Fail_PolicyNotFound() {
+        // Given
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(1L)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(1L))
+                .thenThrow(new CouponPolicyNotFoundException("Coupon policy not found."));
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("Coupon policy not found.");
+        verifyNoInteractions(couponPolicyRepository);
+    }
+
+    @Test
+    @DisplayName("Issue Coupon Fail - Unique Constraint Rejects A Second Coupon For The User")
+    void issueCoupon_Fail_AlreadyIssued() {
+        // Given
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(1L)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(any())).thenReturn(couponPolicy);
+        when(couponPolicyRepository.findByIdWithLock(any())).thenReturn(Optional.of(couponPolicy));
+        when(couponRepository.countByCouponPolicyId(any())).thenReturn(1L);
+        when(couponRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_coupons_policy_user"));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> couponService.issueCoupon(request))
+                    .isInstanceOf(CouponIssueException.class)
+                    .hasMessage("Coupon has already been issued to this user.");
         }
     }
 
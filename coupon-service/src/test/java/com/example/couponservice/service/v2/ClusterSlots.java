@@ -0,0 +1,47 @@
+package com.example.couponservice.service.v2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Redis Cluster slot of a key, as the server computes it: CRC16 (XMODEM) of the hash tag, or of
+ * the whole key when it has none, modulo 16384.
+ */
+final class ClusterSlots {
+
+    private static final int SLOT_COUNT = 16384;
+
+    private ClusterSlots() {
+    }
+
+    static int slot(String key) {
+        int start = key.indexOf('{');
+        if (start >= 0) {
+            int end = key.indexOf('}', start + 1);
+            if (end > start + 1) {
+                key = key.substring(start + 1, end);
+            }
+        }
+        return crc16(key.getBytes(StandardCharsets.UTF_8)) % SLOT_COUNT;
+    }
+
+    static void assertSameSlot(List<?> keys) {
+        int slot = slot(String.valueOf(keys.get(0)));
+        for (Object key : keys) {
+            assertThat(slot(String.valueOf(key))).as("slot of %s in %s", key, keys).isEqualTo(slot);
+        }
+    }
+
+    private static int crc16(byte[] bytes) {
+        int crc = 0;
+        for (byte b : bytes) {
+            crc ^= (b & 0xff) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+        }
+        return crc & 0xffff;
+    }
+}
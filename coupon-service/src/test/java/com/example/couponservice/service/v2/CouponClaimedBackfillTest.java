@@ -0,0 +1,63 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.IssuanceMode;
+import com.example.couponservice.repository.CouponPolicyRepository;
+import com.example.couponservice.repository.CouponRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponClaimedBackfillTest {
+
+    @InjectMocks
+    private CouponClaimedBackfill couponClaimedBackfill;
+
+    @Mock
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponStockService couponStockService;
+
+    @Test
+    @DisplayName("Backfill - Records Holders Of Running Redis-Issued Policies Only")
+    void backfill() {
+        // Given
+        CouponPolicy running = policy(1L, IssuanceMode.SCRIPT, LocalDateTime.now().plusDays(1));
+        CouponPolicy database = policy(2L, IssuanceMode.DATABASE, LocalDateTime.now().plusDays(1));
+        CouponPolicy ended = policy(3L, IssuanceMode.SCRIPT, LocalDateTime.now().minusDays(1));
+        when(couponPolicyRepository.findAll()).thenReturn(List.of(running, database, ended));
+        when(couponRepository.findUserIdsByCouponPolicyId(1L)).thenReturn(List.of(10L, 11L));
+
+        // When
+        couponClaimedBackfill.backfill();
+
+        // Then
+        verify(couponStockService).recordClaims(running, List.of(10L, 11L));
+        verify(couponStockService, never()).recordClaims(eq(database), anyCollection());
+        verify(couponStockService, never()).recordClaims(eq(ended), anyCollection());
+        verify(couponRepository, never()).findUserIdsByCouponPolicyId(2L);
+    }
+
+    private CouponPolicy policy(Long id, IssuanceMode issuanceMode, LocalDateTime endTime) {
+        return CouponPolicy.builder()
+                .id(id)
+                .issuanceMode(issuanceMode)
+                .startTime(endTime.minusDays(2))
+                .endTime(endTime)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.codec.CacheFormat;
+import com.example.couponservice.codec.CouponPolicyCodec;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.repository.CouponPolicyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponPolicyServiceTest {
+
+    @Mock
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<Object> bucket;
+
+    @Mock
+    private RTopic topic;
+
+    private CouponPolicyService couponPolicyService;
+    private CouponPolicyLocalCache couponPolicyLocalCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        couponPolicyLocalCache = new CouponPolicyLocalCache(redissonClient, meterRegistry, 100, 60);
+        couponPolicyService = new CouponPolicyService(couponPolicyRepository, redissonClient,
+                new CouponPolicyCodec(new ObjectMapper().findAndRegisterModules(), CacheFormat.BINARY),
+                mock(CouponStockService.class), couponPolicyLocalCache);
+
+        when(redissonClient.getBucket(anyString(), any(Codec.class))).thenReturn(bucket);
+        when(bucket.get()).thenReturn(null);
+        when(couponPolicyRepository.findById(TEST_POLICY_ID))
+                .thenReturn(Optional.of(CouponPolicy.builder().id(TEST_POLICY_ID).name("Test Coupon").build()));
+    }
+
+    @Test
+    @DisplayName("Get Coupon Policy - Served From Local Cache After First Load")
+    void getCouponPolicy_LocalCacheHit() {
+        // When
+        CouponPolicy first = couponPolicyService.getCouponPolicy(TEST_POLICY_ID);
+        CouponPolicy second = couponPolicyService.getCouponPolicy(TEST_POLICY_ID);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        verify(redissonClient, times(1)).getBucket(anyString(), any(Codec.class));
+        verify(couponPolicyRepository, times(1)).findById(TEST_POLICY_ID);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "couponPolicy").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Invalidate - Evicts Locally And Notifies Other Instances")
+    void invalidate_EvictsAndPublishes() {
+        // Given
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(topic);
+        couponPolicyService.getCouponPolicy(TEST_POLICY_ID);
+
+        // When
+        couponPolicyLocalCache.invalidate(TEST_POLICY_ID);
+        couponPolicyService.getCouponPolicy(TEST_POLICY_ID);
+
+        // Then
+        verify(topic).publish(String.valueOf(TEST_POLICY_ID));
+        verify(couponPolicyRepository, times(2)).findById(TEST_POLICY_ID);
+    }
+}
@@ -4,6 +4,8 @@ import com.example.couponservice.config.UserIdInterceptor;
 import com.example.couponservice.dto.v1.CouponDto;
 import com.example.couponservice.entity.Coupon;
 import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.entity.id.CouponCodeGenerator;
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
 import com.example.couponservice.enums.DiscountType;
 import com.example.couponservice.exception.CouponIssueException;
 import com.example.couponservice.repository.CouponRepository;
@@ -14,8 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 
@@ -42,11 +44,17 @@ class CouponRedisServiceTest {
     @Mock
     private CouponPolicyService couponPolicyService;
 
+    @Spy
+    private CouponCodeGenerator couponCodeGenerator = new CouponCodeGenerator(new SnowflakeIdAllocator(1));
+
+    @Mock
+    private CouponSoldOutRegistry couponSoldOutRegistry;
+
     @Mock
     private RLock rLock;
 
     @Mock
-    private RAtomicLong atomicLong;
+    private CouponStockService couponStockService;
 
     private CouponPolicy couponPolicy;
     private Coupon coupon;
@@ -86,9 +94,8 @@ class CouponRedisServiceTest {
         when(redissonClient.getLock(anyString())).thenReturn(rLock);
         when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
         when(rLock.isHeldByCurrentThread()).thenReturn(true);
-        when(redissonClient.getAtomicLong(anyString())).thenReturn(atomicLong);
-        when(atomicLong.decrementAndGet()).thenReturn(99L);
         when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponStockService.decreaseQuantity(couponPolicy, TEST_USER_ID)).thenReturn(99L);
         when(couponRepository.save(any(Coupon.class))).thenReturn(coupon);
 
         try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
@@ -133,17 +140,62 @@ class CouponRedisServiceTest {
         when(redissonClient.getLock(anyString())).thenReturn(rLock);
         when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
         when(rLock.isHeldByCurrentThread()).thenReturn(true);
-        when(redissonClient.getAtomicLong(anyString())).thenReturn(atomicLong);
-        when(atomicLong.decrementAndGet()).thenReturn(-1L);
         when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponStockService.decreaseQuantity(eq(couponPolicy), any()))
+                .thenThrow(new CouponIssueException("All coupons have been issued."));
 
         // When & Then
         assertThatThrownBy(() -> couponRedisService.issueCoupon(request))
                 .isInstanceOf(CouponIssueException.class)
                 .hasMessage("All coupons have been issued.");
 
-        verify(atomicLong).incrementAndGet();
         verify(rLock).unlock();
+        verify(couponRepository, never()).save(any(Coupon.class));
+    }
+
+    @Test
+    @DisplayName("Issue Coupon Fail - User Already Claimed In The Same Step As The Decrement")
+    void issueCoupon_Fail_AlreadyClaimed() throws InterruptedException {
+        // Given
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        when(redissonClient.getLock(anyString())).thenReturn(rLock);
+        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponStockService.decreaseQuantity(couponPolicy, TEST_USER_ID))
+                .thenThrow(new CouponIssueException("Coupon has already been issued to this user."));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> couponRedisService.issueCoupon(request))
+                    .isInstanceOf(CouponIssueException.class)
+                    .hasMessage("Coupon has already been issued to this user.");
+            verify(couponRepository, never()).save(any(Coupon.class));
+            verify(couponStockService, never()).restoreQuantity(any(), any());
+        }
+    }
+
+    @Test
+    @DisplayName("Issue Coupon Fail - Sold-Out Policy Rejected Without Redis")
+    void issueCoupon_Fail_SoldOutFlag() {
+        // Given
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        when(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> couponRedisService.issueCoupon(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("All coupons have been issued.");
+
+        verifyNoInteractions(redissonClient, couponPolicyService, couponRepository);
     }
 
     @Test
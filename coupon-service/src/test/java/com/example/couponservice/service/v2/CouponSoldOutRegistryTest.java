@@ -0,0 +1,147 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.IssuanceMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponSoldOutRegistryTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RedisScriptService redisScriptService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private RBatch batch;
+
+    private CouponSoldOutRegistry couponSoldOutRegistry;
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponSoldOutRegistry = new CouponSoldOutRegistry(redissonClient, redisScriptService);
+        lenient().when(redissonClient.createBatch()).thenReturn(batch);
+        lenient().when(redisScriptService.eval(anyString(), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            ClusterSlots.assertSameSlot(invocation.getArgument(1));
+            return 1L;
+        });
+    }
+
+    @Test
+    @DisplayName("Mark If Sold Out - Flags The Policy When Every Shard Is Empty")
+    void markIfSoldOut_Sharded() {
+        // Given
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.SHARDED)
+                .shardCount(2)
+                .build();
+        doReturn(new BatchResult<>(List.of(0, 0L, 0L), 0)).when(batch).execute();
+
+        // When
+        couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+
+        // Then
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isTrue();
+        verify(batch, times(2)).getMap("coupon:lease:{1}", StringCodec.INSTANCE);
+        verify(batch, times(2)).getAtomicLong("coupon:quantity:{1:0}");
+        verify(batch, times(2)).getAtomicLong("coupon:quantity:{1:1}");
+        verify(redisScriptService).eval(contains("SADD"), eq(List.of("coupon:sold-out")), any(Object[].class));
+        verify(redisScriptService, never()).eval(contains("SREM"), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Mark If Sold Out - Stock Still In Redis Leaves The Policy Open")
+    void markIfSoldOut_StockLeft() {
+        // Given
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.SCRIPT)
+                .build();
+        doReturn(new BatchResult<>(List.of(0, 3L), 0)).when(batch).execute();
+
+        // When
+        couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+
+        // Then
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isFalse();
+        verify(batch).getAtomicLong("coupon:quantity:{1}");
+        verifyNoInteractions(redisScriptService);
+    }
+
+    @Test
+    @DisplayName("Mark If Sold Out - Stock Leased Out Leaves The Policy Open")
+    void markIfSoldOut_StockLeased() {
+        // Given
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.LEASED)
+                .build();
+        doReturn(new BatchResult<>(List.of(2, 0L), 0)).when(batch).execute();
+
+        // When
+        couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+
+        // Then
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isFalse();
+        verifyNoInteractions(redisScriptService);
+    }
+
+    @Test
+    @DisplayName("Mark If Sold Out - Stock Returned While Marking Clears The Flag Again")
+    void markIfSoldOut_StockReturned() {
+        // Given
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.SCRIPT)
+                .build();
+        doReturn(new BatchResult<>(List.of(0, 0L), 0), new BatchResult<>(List.of(0, 1L), 0))
+                .when(batch).execute();
+
+        // When
+        couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+
+        // Then
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isFalse();
+        verify(redisScriptService).eval(contains("SADD"), eq(List.of("coupon:sold-out")), any(Object[].class));
+        verify(redisScriptService).eval(contains("SREM"), eq(List.of("coupon:sold-out")), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Clear - Returned Stock Reopens The Policy")
+    void clear() {
+        // Given
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.SCRIPT)
+                .build();
+        doReturn(new BatchResult<>(List.of(0, 0L), 0)).when(batch).execute();
+        couponSoldOutRegistry.markIfSoldOut(couponPolicy);
+
+        // When
+        couponSoldOutRegistry.clear(TEST_POLICY_ID);
+
+        // Then
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isFalse();
+        verify(redisScriptService).eval(contains("SREM"), eq(List.of("coupon:sold-out")), any(Object[].class));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.codec.CacheFormat;
+import com.example.couponservice.codec.CouponStateCodec;
+import com.example.couponservice.dto.v1.CouponDto;
+import com.example.couponservice.entity.Coupon;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.exception.CouponNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RBucketAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponStateServiceTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBatch batch;
+
+    @Mock
+    private RBucketAsync<Object> batchBucket;
+
+    @Mock
+    private RBucket<Object> stateBucket;
+
+    @Mock
+    private RBucket<Object> leaseBucket;
+
+    private CouponStateService couponStateService;
+    private Coupon coupon;
+
+    private final AtomicReference<Object> storedState = new AtomicReference<>();
+    private final AtomicBoolean leaseTaken = new AtomicBoolean();
+
+    private static final Long TEST_COUPON_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponStateService = new CouponStateService(redissonClient,
+                new CouponStateCodec(new ObjectMapper().findAndRegisterModules(), CacheFormat.BINARY));
+        ReflectionTestUtils.setField(couponStateService, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(couponStateService, "leaseMillis", 3000L);
+        ReflectionTestUtils.setField(couponStateService, "leaseWaitMillis", 500L);
+        ReflectionTestUtils.setField(couponStateService, "earlyRefreshBeta", 1.0);
+
+        coupon = Coupon.builder()
+                .id(TEST_COUPON_ID)
+                .userId(1L)
+                .couponCode("TEST123")
+                .couponPolicy(CouponPolicy.builder()
+                        .id(1L)
+                        .discountType(DiscountType.FIXED_AMOUNT)
+                        .discountValue(1000)
+                        .startTime(LocalDateTime.now().minusDays(1))
+                        .endTime(LocalDateTime.now().plusDays(1))
+                        .build())
+                .build();
+
+        when(redissonClient.createBatch()).thenReturn(batch);
+        when(batch.getBucket(anyString(), any(Codec.class))).thenReturn(batchBucket);
+        when(batchBucket.getAsync()).thenAnswer(invocation -> new CompletableFutureWrapper<>(storedState.get()));
+        when(batchBucket.remainTimeToLiveAsync()).thenAnswer(invocation ->
+                new CompletableFutureWrapper<>(storedState.get() == null ? -2L : 3_600_000L));
+        when(redissonClient.getBucket(startsWith("coupon:state:lease:"), any(Codec.class))).thenReturn(leaseBucket);
+        when(leaseBucket.trySet(any(), anyLong(), any(TimeUnit.class)))
+                .thenAnswer(invocation -> leaseTaken.compareAndSet(false, true));
+        lenient().when(leaseBucket.compareAndSet(any(), isNull())).thenAnswer(invocation -> {
+            leaseTaken.set(false);
+            return true;
+        });
+        lenient().when(redissonClient.getBucket(eq("coupon:state:" + TEST_COUPON_ID), any(Codec.class))).thenReturn(stateBucket);
+        lenient().doAnswer(invocation -> {
+            storedState.set(invocation.getArgument(0));
+            return null;
+        }).when(stateBucket).set(any(), anyLong(), any(TimeUnit.class));
+        lenient().when(stateBucket.get()).thenAnswer(invocation -> storedState.get());
+    }
+
+    @Test
+    @DisplayName("Get Coupon State - Concurrent Misses Load Once")
+    void getCouponState_SingleFlight() throws InterruptedException {
+        // Given
+        int requestCount = 20;
+        AtomicInteger loadCount = new AtomicInteger();
+        Supplier<Coupon> loader = () -> {
+            loadCount.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return coupon;
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(requestCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(requestCount);
+        AtomicInteger loadedCount = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    CouponDto.Response response = couponStateService.getCouponState(TEST_COUPON_ID, loader);
+                    if (TEST_COUPON_ID.equals(response.getId())) {
+                        loadedCount.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertThat(doneLatch.await(10, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+
+        // Then
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(loadedCount.get()).isEqualTo(requestCount);
+        verify(stateBucket, times(1)).set(any(), eq(3600L), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Get Coupon State Fail - Loader Error Reaches The Caller And Frees The Lease")
+    void getCouponState_Fail_NotFound() {
+        // When & Then
+        assertThatThrownBy(() -> couponStateService.getCouponState(TEST_COUPON_ID, () -> {
+            throw new CouponNotFoundException("Coupon not found.");
+        }))
+                .isInstanceOf(CouponNotFoundException.class)
+                .hasMessage("Coupon not found.");
+        assertThat(leaseTaken.get()).isFalse();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.couponservice.service.v2;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CouponStockLeaseServiceTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RSet<Object> leasedPolicies;
+
+    private CouponStockLeaseService couponStockLeaseService;
+
+    private final AtomicLong quantity = new AtomicLong();
+    private final List<String> evaluatedScripts = new ArrayList<>();
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        quantity.set(1000);
+        lenient().when(redissonClient.getSet(anyString(), any(Codec.class))).thenReturn(leasedPolicies);
+        RedisScriptService redisScriptService = mock(RedisScriptService.class, invocation -> {
+            String script = invocation.getArgument(0);
+            Object[] args = invocation.getArguments();
+            ClusterSlots.assertSameSlot(invocation.getArgument(1));
+            if (script.contains("DECRBY")) {
+                evaluatedScripts.add("lease");
+                long granted = Math.min(quantity.get(), Long.parseLong(String.valueOf(args[3])));
+                quantity.addAndGet(-granted);
+                return granted;
+            }
+            if (script.contains("INCRBY") && !script.contains("HGETALL")) {
+                evaluatedScripts.add("return");
+                return quantity.addAndGet(Long.parseLong(String.valueOf(args[3])));
+            }
+            evaluatedScripts.add("checkpoint");
+            return 0L;
+        });
+
+        couponStockLeaseService = new CouponStockLeaseService(redissonClient, redisScriptService,
+                mock(CouponSoldOutRegistry.class));
+        ReflectionTestUtils.setField(couponStockLeaseService, "leaseSize", 500L);
+        ReflectionTestUtils.setField(couponStockLeaseService, "leaseAllowance", 50L);
+        ReflectionTestUtils.setField(couponStockLeaseService, "leaseTtlSeconds", 60L);
+        ReflectionTestUtils.setField(couponStockLeaseService, "orphanTimeoutMillis", 15000L);
+    }
+
+    @Test
+    @DisplayName("Acquire - Decides Issuances From The Local Lease")
+    void acquire_UsesLocalLease() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            couponStockLeaseService.acquire(TEST_POLICY_ID);
+        }
+
+        // Then
+        assertThat(evaluatedScripts).containsExactly("lease", "checkpoint");
+        assertThat(quantity.get()).isEqualTo(500);
+        verify(leasedPolicies).add("1");
+    }
+
+    @Test
+    @DisplayName("Return All Leases - Gives Unused Stock Back")
+    void returnAllLeases_ReturnsUnusedStock() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            couponStockLeaseService.acquire(TEST_POLICY_ID);
+        }
+
+        // When
+        couponStockLeaseService.returnAllLeases();
+
+        // Then
+        assertThat(quantity.get()).isEqualTo(990);
+    }
+
+    @Test
+    @DisplayName("Acquire - Sold Out When Nothing Left To Lease")
+    void acquire_SoldOut() {
+        // Given
+        quantity.set(1);
+
+        // When & Then
+        assertThat(couponStockLeaseService.acquire(TEST_POLICY_ID)).isZero();
+        assertThat(couponStockLeaseService.acquire(TEST_POLICY_ID)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.config.UserIdInterceptor;
+import com.example.couponservice.dto.v1.CouponDto;
+import com.example.couponservice.entity.Coupon;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.entity.id.CouponCodeGenerator;
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssuanceMode;
+import com.example.couponservice.exception.CouponIssueException;
+import com.example.couponservice.repository.CouponRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the stock scripts on an embedded Redis, so the Lua itself is what keeps issuance from
+ * overselling. Every script call is also checked to stay within one Redis Cluster slot.
+ */
+@ExtendWith(MockitoExtension.class)
+class CouponStockServiceTest {
+
+    private static RedisServer redisServer;
+    private static RedissonClient redisson;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponPolicyService couponPolicyService;
+
+    private RedissonClient redissonClient;
+    private RedisScriptService redisScriptService;
+    private CouponStockService couponStockService;
+    private CouponRedisService couponRedisService;
+    private CouponPolicy couponPolicy;
+
+    private static final Long TEST_POLICY_ID = 1L;
+    private static final int TOTAL_QUANTITY = 50;
+    private static final String QUANTITY_KEY = "coupon:quantity:{1}";
+    private static final String CLAIMED_KEY = "coupon:claimed:{1}";
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+        redisson = Redisson.create(config);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisson.shutdown();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisson.getKeys().flushall();
+        redissonClient = spy(redisson);
+        redisScriptService = new RedisScriptService(redissonClient) {
+            @Override
+            public long eval(String script, List<Object> keys, Object... values) {
+                ClusterSlots.assertSameSlot(keys);
+                return super.eval(script, keys, values);
+            }
+        };
+
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .name("Test Coupon")
+                .discountType(DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(TOTAL_QUANTITY)
+                .issuanceMode(IssuanceMode.SCRIPT)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        CouponSoldOutRegistry couponSoldOutRegistry = mock(CouponSoldOutRegistry.class);
+        couponStockService = new CouponStockService(redissonClient, redisScriptService,
+                mock(CouponStockLeaseService.class), couponSoldOutRegistry);
+        couponRedisService = new CouponRedisService(redissonClient, couponRepository, couponPolicyService, couponStockService,
+                new CouponCodeGenerator(new SnowflakeIdAllocator(1)), couponSoldOutRegistry);
+        couponStockService.initializeQuantity(couponPolicy);
+    }
+
+    @Test
+    @DisplayName("Issue Coupon Script Mode - No Oversell Under Concurrency")
+    void issueCoupon_ScriptMode_NoOversell() throws InterruptedException {
+        // Given
+        int requestCount = 200;
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponRepository.save(any(Coupon.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(requestCount);
+        AtomicInteger issuedCount = new AtomicInteger();
+        AtomicInteger soldOutCount = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        // When
+        for (int i = 0; i < requestCount; i++) {
+            long userId = i + 1;
+            executorService.submit(() -> {
+                UserIdInterceptor interceptor = new UserIdInterceptor();
+                MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+                httpRequest.addHeader("X-USER-ID", String.valueOf(userId));
+                try {
+                    interceptor.preHandle(httpRequest, new MockHttpServletResponse(), null);
+                    startLatch.await();
+                    couponRedisService.issueCoupon(CouponDto.IssueRequest.builder()
+                            .couponPolicyId(TEST_POLICY_ID)
+                            .build());
+                    issuedCount.incrementAndGet();
+                } catch (CouponIssueException e) {
+                    soldOutCount.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    try {
+                        interceptor.afterCompletion(httpRequest, new MockHttpServletResponse(), null, null);
+                    } catch (Exception e) {
+                        failures.add(e);
+                    }
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertThat(doneLatch.await(30, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+
+        // Then
+        assertThat(failures).isEmpty();
+        assertThat(issuedCount.get()).isEqualTo(TOTAL_QUANTITY);
+        assertThat(soldOutCount.get()).isEqualTo(requestCount - TOTAL_QUANTITY);
+        assertThat(quantity(QUANTITY_KEY)).isZero();
+        assertThat(claimed(CLAIMED_KEY)).hasSize(TOTAL_QUANTITY);
+        verify(couponRepository, times(TOTAL_QUANTITY)).save(any(Coupon.class));
+        verify(redissonClient, never()).getLock(anyString());
+    }
+
+    @Test
+    @DisplayName("Decrease Quantity Fail - Already Claimed")
+    void decreaseQuantity_Fail_AlreadyClaimed() {
+        // Given
+        couponStockService.decreaseQuantity(couponPolicy, 1L);
+
+        // When & Then
+        assertThatThrownBy(() -> couponStockService.decreaseQuantity(couponPolicy, 1L))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("Coupon has already been issued to this user.");
+        assertThat(quantity(QUANTITY_KEY)).isEqualTo(TOTAL_QUANTITY - 1);
+    }
+
+    @Test
+    @DisplayName("Decrease Quantity Fail - Invalid Issuance Period")
+    void decreaseQuantity_Fail_InvalidPeriod() {
+        // Given
+        CouponPolicy futurePolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.SCRIPT)
+                .startTime(LocalDateTime.now().plusDays(1))
+                .endTime(LocalDateTime.now().plusDays(2))
+                .build();
+
+        // When & Then
+        assertThatThrownBy(() -> couponStockService.decreaseQuantity(futurePolicy, 1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Coupon issuance is not available during this period.");
+        assertThat(quantity(QUANTITY_KEY)).isEqualTo(TOTAL_QUANTITY);
+    }
+
+    @Test
+    @DisplayName("Restore Quantity - Releases Claim Only Once")
+    void restoreQuantity_Idempotent() {
+        // Given
+        couponStockService.decreaseQuantity(couponPolicy, 1L);
+
+        // When
+        couponStockService.restoreQuantity(couponPolicy, 1L);
+        couponStockService.restoreQuantity(couponPolicy, 1L);
+
+        // Then
+        assertThat(quantity(QUANTITY_KEY)).isEqualTo(TOTAL_QUANTITY);
+        assertThat(claimed(CLAIMED_KEY)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Decrease Quantity Sharded - Falls Back To Sibling Shard")
+    void decreaseQuantity_Sharded_FallsBackToSibling() {
+        // Given
+        CouponPolicy shardedPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .totalQuantity(2)
+                .issuanceMode(IssuanceMode.SHARDED)
+                .shardCount(2)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        couponStockService.initializeQuantity(shardedPolicy);
+
+        // When
+        couponStockService.decreaseQuantity(shardedPolicy, 2L);
+        couponStockService.decreaseQuantity(shardedPolicy, 4L);
+
+        // Then
+        assertThat(quantity("coupon:quantity:{1:0}")).isZero();
+        assertThat(quantity("coupon:quantity:{1:1}")).isZero();
+        assertThat(claimed("coupon:claimed:{1:0}")).containsExactlyInAnyOrder("2", "4");
+        assertThatThrownBy(() -> couponStockService.decreaseQuantity(shardedPolicy, 4L))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("Coupon has already been issued to this user.");
+        assertThatThrownBy(() -> couponStockService.decreaseQuantity(shardedPolicy, 6L))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("All coupons have been issued.");
+    }
+
+    @Test
+    @DisplayName("Decrease Quantity Leased Fail - Already Claimed Without Touching The Lease")
+    void decreaseQuantity_Leased_Fail_AlreadyClaimed() {
+        // Given
+        CouponStockLeaseService couponStockLeaseService = mock(CouponStockLeaseService.class);
+        CouponStockService leasedStockService = new CouponStockService(redissonClient,
+                redisScriptService, couponStockLeaseService, mock(CouponSoldOutRegistry.class));
+        CouponPolicy leasedPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.LEASED)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        when(couponStockLeaseService.acquire(TEST_POLICY_ID)).thenReturn(9L);
+        leasedStockService.decreaseQuantity(leasedPolicy, 1L);
+
+        // When & Then
+        assertThatThrownBy(() -> leasedStockService.decreaseQuantity(leasedPolicy, 1L))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("Coupon has already been issued to this user.");
+        verify(couponStockLeaseService, times(1)).acquire(TEST_POLICY_ID);
+        assertThat(claimed(CLAIMED_KEY)).containsExactly("1");
+    }
+
+    @Test
+    @DisplayName("Restore Quantity Leased - Gives The Unit Back To The Lease Only Once")
+    void restoreQuantity_Leased_Idempotent() {
+        // Given
+        CouponStockLeaseService couponStockLeaseService = mock(CouponStockLeaseService.class);
+        CouponSoldOutRegistry couponSoldOutRegistry = mock(CouponSoldOutRegistry.class);
+        CouponStockService leasedStockService = new CouponStockService(redissonClient,
+                redisScriptService, couponStockLeaseService, couponSoldOutRegistry);
+        CouponPolicy leasedPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.LEASED)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        when(couponStockLeaseService.acquire(TEST_POLICY_ID)).thenReturn(9L);
+        leasedStockService.decreaseQuantity(leasedPolicy, 1L);
+
+        // When
+        leasedStockService.restoreQuantity(leasedPolicy, 1L);
+        leasedStockService.restoreQuantity(leasedPolicy, 1L);
+        leasedStockService.restoreQuantity(leasedPolicy, 2L);
+
+        // Then
+        verify(couponStockLeaseService, times(1)).restore(TEST_POLICY_ID);
+        verify(couponSoldOutRegistry, times(1)).clear(TEST_POLICY_ID);
+        assertThat(claimed(CLAIMED_KEY)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Record Claims - Existing Holders Are Refused Without Taking Stock")
+    void recordClaims() {
+        // When
+        couponStockService.recordClaims(couponPolicy, List.of(1L, 2L));
+        couponStockService.recordClaims(couponPolicy, List.of(1L));
+
+        // Then
+        assertThat(claimed(CLAIMED_KEY)).containsExactlyInAnyOrder("1", "2");
+        assertThat(redisson.getSet(CLAIMED_KEY).remainTimeToLive()).isPositive();
+        assertThatThrownBy(() -> couponStockService.decreaseQuantity(couponPolicy, 2L))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("Coupon has already been issued to this user.");
+        assertThat(quantity(QUANTITY_KEY)).isEqualTo(TOTAL_QUANTITY);
+    }
+
+    @Test
+    @DisplayName("Record Claims Sharded - Each User Goes To Their Home Shard")
+    void recordClaims_Sharded() {
+        // Given
+        CouponPolicy shardedPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .issuanceMode(IssuanceMode.SHARDED)
+                .shardCount(2)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        // When
+        couponStockService.recordClaims(shardedPolicy, List.of(2L, 3L));
+
+        // Then
+        assertThat(claimed("coupon:claimed:{1:0}")).containsExactly("2");
+        assertThat(claimed("coupon:claimed:{1:1}")).containsExactly("3");
+    }
+
+    private long quantity(String key) {
+        return redisson.getAtomicLong(key).get();
+    }
+
+    private Set<String> claimed(String key) {
+        return redisson.<String>getSet(key, StringCodec.INSTANCE).readAll();
+    }
+}
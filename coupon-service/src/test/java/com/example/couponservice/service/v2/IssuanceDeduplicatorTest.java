@@ -0,0 +1,92 @@
+package com.example.couponservice.service.v2;
+
+import com.example.couponservice.exception.CouponIssueException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IssuanceDeduplicatorTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RedisScriptService redisScriptService;
+
+    @Mock
+    private RBucket<Object> bucket;
+
+    private IssuanceDeduplicator issuanceDeduplicator;
+
+    private static final String SCOPE = "request:1";
+    private static final String KEY = "retry-me";
+    private static final String DEDUP_KEY = "coupon:dedup:request:1:retry-me";
+
+    @BeforeEach
+    void setUp() {
+        issuanceDeduplicator = new IssuanceDeduplicator(redissonClient, redisScriptService, 24, 30, 1000);
+        lenient().when(redissonClient.getBucket(eq(DEDUP_KEY), any(Codec.class))).thenReturn(bucket);
+    }
+
+    @Test
+    @DisplayName("Claim - A Completed Key Is Answered With A Read")
+    void claim_CompletedKeyRead() {
+        // Given
+        when(redisScriptService.eval(contains("SET"), anyList(), any(Object[].class)))
+                .thenReturn(IssuanceDeduplicator.CLAIMED);
+        long first = issuanceDeduplicator.claim(SCOPE, KEY);
+        issuanceDeduplicator.runClaimed(SCOPE, KEY, () -> 42L);
+        when(bucket.get()).thenReturn("42");
+
+        // When
+        long repeat = issuanceDeduplicator.claim(SCOPE, KEY);
+
+        // Then
+        assertThat(first).isEqualTo(IssuanceDeduplicator.CLAIMED);
+        assertThat(repeat).isEqualTo(42L);
+        verify(bucket).set("42", 24 * 3_600_000L, TimeUnit.MILLISECONDS);
+        verify(redisScriptService, times(1)).eval(anyString(), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Claim - A Key Still Being Processed Is Reported In Progress")
+    void claim_InProgress() {
+        // Given
+        when(redisScriptService.eval(contains("SET"), anyList(), any(Object[].class)))
+                .thenReturn(IssuanceDeduplicator.IN_PROGRESS);
+
+        // When
+        long claimed = issuanceDeduplicator.claim(SCOPE, KEY);
+
+        // Then
+        assertThat(claimed).isEqualTo(IssuanceDeduplicator.IN_PROGRESS);
+        verify(bucket, never()).get();
+    }
+
+    @Test
+    @DisplayName("Run Claimed Fail - A Failed Attempt Releases The Claim")
+    void runClaimed_Fail_Releases() {
+        // When & Then
+        assertThatThrownBy(() -> issuanceDeduplicator.runClaimed(SCOPE, KEY, () -> {
+            throw new CouponIssueException("All coupons have been issued.");
+        }))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("All coupons have been issued.");
+        verify(bucket).delete();
+        verify(bucket, never()).set(any(), anyLong(), any(TimeUnit.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponBatchConsumerTest {
+
+    @InjectMocks
+    private CouponBatchConsumer couponBatchConsumer;
+
+    @Mock
+    private CouponService couponService;
+
+    @Mock
+    private CouponProducer couponProducer;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private final CouponDto.IssueMessage first = message(1L);
+    private final CouponDto.IssueMessage second = message(2L);
+    private final List<CouponDto.IssueMessage> messages = List.of(first, second);
+
+    @Test
+    @DisplayName("Consume - Issues The Batch And Commits")
+    void consume_Success() {
+        // When
+        couponBatchConsumer.consumeCouponIssueRequests(messages, ack);
+
+        // Then
+        verify(couponService).issueCoupons(messages);
+        verify(couponService, never()).issueCoupon(any());
+        verify(ack).acknowledge();
+        verifyNoInteractions(couponProducer);
+    }
+
+    @Test
+    @DisplayName("Consume Fail - Batch Falls Back Per Record And Only The Bad One Goes To Retry")
+    void consume_Fail_FallsBackPerRecord() {
+        // Given
+        doThrow(new IllegalArgumentException("Coupon policy not found.")).when(couponService).issueCoupons(messages);
+        doThrow(new IllegalArgumentException("Coupon policy not found.")).when(couponService).issueCoupon(second);
+
+        // When
+        couponBatchConsumer.consumeCouponIssueRequests(messages, ack);
+
+        // Then
+        verify(couponService).issueCoupon(first);
+        verify(couponService).issueCoupon(second);
+        verify(couponProducer).sendToRetry(second);
+        verify(couponProducer, never()).sendToRetry(first);
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Consume Fail - Offsets Stay Uncommitted When Retry Is Unreachable")
+    void consume_Fail_RetryUnavailable() {
+        // Given
+        doThrow(new IllegalStateException("database unavailable")).when(couponService).issueCoupons(messages);
+        doThrow(new IllegalStateException("database unavailable")).when(couponService).issueCoupon(first);
+        doThrow(new IllegalStateException("Unable to send message to coupon-issue-retries"))
+                .when(couponProducer).sendToRetry(first);
+
+        // When & Then
+        assertThatThrownBy(() -> couponBatchConsumer.consumeCouponIssueRequests(messages, ack))
+                .isInstanceOf(IllegalStateException.class);
+        verify(ack, never()).acknowledge();
+    }
+
+    private static CouponDto.IssueMessage message(Long messageId) {
+        return CouponDto.IssueMessage.builder()
+                .messageId(messageId)
+                .policyId(1L)
+                .userId(messageId)
+                .build();
+    }
+}
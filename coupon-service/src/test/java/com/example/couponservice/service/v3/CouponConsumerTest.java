@@ -0,0 +1,75 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponConsumerTest {
+
+    @InjectMocks
+    private CouponConsumer couponConsumer;
+
+    @Mock
+    private CouponService couponService;
+
+    @Mock
+    private CouponProducer couponProducer;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private final CouponDto.IssueMessage message = CouponDto.IssueMessage.builder()
+            .messageId(42L)
+            .policyId(1L)
+            .userId(1L)
+            .build();
+
+    @Test
+    @DisplayName("Consume - Issues The Coupon And Commits")
+    void consume_Success() {
+        // When
+        couponConsumer.consumeCouponIssueRequest(message, ack);
+
+        // Then
+        verify(couponService).issueCoupon(message);
+        verify(ack).acknowledge();
+        verifyNoInteractions(couponProducer);
+    }
+
+    @Test
+    @DisplayName("Consume Fail - Hands The Message To Retry And Moves On")
+    void consume_Fail_SentToRetry() {
+        // Given
+        doThrow(new IllegalStateException("database unavailable")).when(couponService).issueCoupon(message);
+
+        // When
+        couponConsumer.consumeCouponIssueRequest(message, ack);
+
+        // Then
+        verify(couponProducer).sendToRetry(message);
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Consume Fail - Offset Stays Uncommitted When Retry Is Unreachable")
+    void consume_Fail_RetryUnavailable() {
+        // Given
+        doThrow(new IllegalStateException("database unavailable")).when(couponService).issueCoupon(message);
+        doThrow(new IllegalStateException("Unable to send message to coupon-issue-retries"))
+                .when(couponProducer).sendToRetry(message);
+
+        // When & Then
+        assertThatThrownBy(() -> couponConsumer.consumeCouponIssueRequest(message, ack))
+                .isInstanceOf(IllegalStateException.class);
+        verify(ack, never()).acknowledge();
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.config.UserIdInterceptor;
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.entity.id.CouponCodeGenerator;
+import com.example.couponservice.entity.id.SnowflakeIdAllocator;
+import com.example.couponservice.enums.IssuanceMode;
+import com.example.couponservice.exception.CouponIssueException;
+import com.example.couponservice.repository.CouponBulkRepository;
+import com.example.couponservice.repository.CouponRepository;
+import com.example.couponservice.service.v2.CouponPolicyService;
+import com.example.couponservice.service.v2.CouponSoldOutRegistry;
+import com.example.couponservice.service.v2.CouponStateService;
+import com.example.couponservice.service.v2.CouponStockService;
+import com.example.couponservice.service.v2.IssuanceDeduplicator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponServiceTest {
+
+    @InjectMocks
+    private CouponService couponService;
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private CouponRepository couponRepository;
+    @Mock
+    private CouponBulkRepository couponBulkRepository;
+    @Mock
+    private CouponProducer couponProducer;
+    @Mock
+    private CouponStateService couponStateService;
+    @Mock
+    private CouponPolicyService couponPolicyService;
+    @Mock
+    private CouponStockService couponStockService;
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
+    @Mock
+    private CouponSoldOutRegistry couponSoldOutRegistry;
+    @Mock
+    private IssuanceDeduplicator issuanceDeduplicator;
+    @Mock
+    private SnowflakeIdAllocator snowflakeIdAllocator;
+    @Mock
+    private IssuanceResultService issuanceResultService;
+
+    private CouponPolicy couponPolicy;
+
+    private static final Long TEST_POLICY_ID = 1L;
+    private static final Long TEST_USER_ID = 1L;
+
+    private final CouponDto.IssueMessage message = CouponDto.IssueMessage.builder()
+            .messageId(42L)
+            .policyId(TEST_POLICY_ID)
+            .userId(TEST_USER_ID)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .totalQuantity(100)
+                .issuanceMode(IssuanceMode.SCRIPT)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Request Coupon Issue - Takes Stock And Sends The Request")
+    void requestCouponIssue() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(snowflakeIdAllocator.nextId()).thenReturn(42L);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            long requestId = couponService.requestCouponIssue(issueRequest(), null);
+
+            // Then
+            assertThat(requestId).isEqualTo(42L);
+            verify(couponStockService).decreaseQuantity(couponPolicy, TEST_USER_ID);
+            verify(couponProducer).sendCouponIssueRequest(argThat(sent -> sent.getMessageId() == 42L
+                    && sent.getPolicyId().equals(TEST_POLICY_ID) && sent.getUserId().equals(TEST_USER_ID)));
+            verifyNoInteractions(issuanceResultService);
+        }
+    }
+
+    @Test
+    @DisplayName("Request Coupon Issue Fail - Send Fails And The Stock Goes Back")
+    void requestCouponIssue_Fail_SendFails() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(snowflakeIdAllocator.nextId()).thenReturn(42L);
+        doThrow(new IllegalStateException("Unable to send message to coupon-issue-requests"))
+                .when(couponProducer).sendCouponIssueRequest(any());
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> couponService.requestCouponIssue(issueRequest(), null))
+                    .isInstanceOf(CouponIssueException.class)
+                    .hasMessage("Coupon issuance is temporarily unavailable. Please try again later.");
+            verify(couponStockService).restoreQuantity(couponPolicy, TEST_USER_ID);
+            verify(issuanceResultService).recordFailed(42L, TEST_USER_ID, "The coupon could not be issued.");
+        }
+    }
+
+    @Test
+    @DisplayName("Issue Coupons - Repeated Message Id In One Batch Is Issued Once")
+    void issueCoupons_RepeatedMessageId() {
+        // Given
+        CouponDto.IssueMessage repeated = CouponDto.IssueMessage.builder()
+                .messageId(42L)
+                .policyId(TEST_POLICY_ID)
+                .userId(TEST_USER_ID)
+                .build();
+        when(issuanceDeduplicator.claim("message", "42")).thenReturn(IssuanceDeduplicator.CLAIMED);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(snowflakeIdAllocator.nextId()).thenReturn(100L);
+        when(couponBulkRepository.insertAll(anyList())).thenReturn(1);
+
+        // When
+        int issued = couponService.issueCoupons(List.of(message, repeated));
+
+        // Then
+        assertThat(issued).isEqualTo(1);
+        verify(issuanceDeduplicator, times(1)).claim("message", "42");
+        verify(couponBulkRepository).insertAll(argThat(coupons -> coupons.size() == 1));
+        verify(issuanceResultService, times(1)).recordIssued(eq(42L), any());
+    }
+
+    @Test
+    @DisplayName("Compensate Dead Letter - Returns The Stock And Reports The Failure")
+    void compensateDeadLetter() {
+        // Given
+        when(couponRepository.existsByCouponPolicyIdAndUserId(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(false);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+
+        // When
+        couponService.compensateDeadLetter(message);
+
+        // Then
+        verify(couponStockService).restoreQuantity(couponPolicy, TEST_USER_ID);
+        verify(issuanceResultService).recordFailed(42L, TEST_USER_ID, "The coupon could not be issued.");
+    }
+
+    @Test
+    @DisplayName("Compensate Dead Letter - Coupon Issued After All Keeps The Stock Taken")
+    void compensateDeadLetter_AlreadyIssued() {
+        // Given
+        when(couponRepository.existsByCouponPolicyIdAndUserId(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(true);
+
+        // When
+        couponService.compensateDeadLetter(message);
+
+        // Then
+        verifyNoInteractions(couponStockService, issuanceResultService);
+    }
+
+    @Test
+    @DisplayName("Replay Dead Letter - Takes Stock Again And Resends The Request")
+    void replayDeadLetter() {
+        // Given
+        when(couponRepository.existsByCouponPolicyIdAndUserId(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(false);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+
+        // When
+        boolean replayed = couponService.replayDeadLetter(message);
+
+        // Then
+        assertThat(replayed).isTrue();
+        verify(couponStockService).decreaseQuantity(couponPolicy, TEST_USER_ID);
+        verify(couponProducer).resendCouponIssueRequest(message);
+    }
+
+    @Test
+    @DisplayName("Replay Dead Letter Fail - Coupon Already Issued")
+    void replayDeadLetter_Fail_AlreadyIssued() {
+        // Given
+        when(couponRepository.existsByCouponPolicyIdAndUserId(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(true);
+
+        // When
+        boolean replayed = couponService.replayDeadLetter(message);
+
+        // Then
+        assertThat(replayed).isFalse();
+        verifyNoInteractions(couponStockService, couponProducer);
+    }
+
+    @Test
+    @DisplayName("Replay Dead Letter Fail - Stock Is Gone")
+    void replayDeadLetter_Fail_SoldOut() {
+        // Given
+        when(couponRepository.existsByCouponPolicyIdAndUserId(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(false);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponStockService.decreaseQuantity(couponPolicy, TEST_USER_ID))
+                .thenThrow(new CouponIssueException("All coupons have been issued."));
+
+        // When
+        boolean replayed = couponService.replayDeadLetter(message);
+
+        // Then
+        assertThat(replayed).isFalse();
+        verifyNoInteractions(couponProducer);
+        verify(couponStockService, never()).restoreQuantity(any(), any());
+    }
+
+    @Test
+    @DisplayName("Replay Dead Letter Fail - Resend Fails And The Stock Goes Back")
+    void replayDeadLetter_Fail_ResendFails() {
+        // Given
+        when(couponRepository.existsByCouponPolicyIdAndUserId(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(false);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        doThrow(new IllegalStateException("Unable to send message to coupon-issue-requests"))
+                .when(couponProducer).resendCouponIssueRequest(message);
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.replayDeadLetter(message))
+                .isInstanceOf(IllegalStateException.class);
+        verify(couponStockService).restoreQuantity(couponPolicy, TEST_USER_ID);
+    }
+
+    private CouponDto.IssueRequest issueRequest() {
+        return CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+    }
+}
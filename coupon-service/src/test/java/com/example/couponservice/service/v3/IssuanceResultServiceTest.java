@@ -0,0 +1,127 @@
+package com.example.couponservice.service.v3;
+
+import com.example.couponservice.dto.v3.CouponDto;
+import com.example.couponservice.entity.Coupon;
+import com.example.couponservice.entity.CouponPolicy;
+import com.example.couponservice.enums.DiscountType;
+import com.example.couponservice.enums.IssueStatus;
+import com.example.couponservice.service.v2.RedisScriptService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IssuanceResultServiceTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RedisScriptService redisScriptService;
+
+    @Mock
+    private RBucket<Object> bucket;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private IssuanceResultService issuanceResultService;
+    private Coupon coupon;
+
+    private static final Long REQUEST_ID = 42L;
+    private static final Long TEST_USER_ID = 1L;
+    private static final String RESULT_KEY = "coupon:issue-result:42";
+
+    @BeforeEach
+    void setUp() {
+        issuanceResultService = new IssuanceResultService(redissonClient, redisScriptService, objectMapper, 300, 30000);
+
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(1L)
+                .discountType(DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        coupon = Coupon.builder()
+                .id(7L)
+                .userId(TEST_USER_ID)
+                .couponPolicy(couponPolicy)
+                .couponCode("TEST123")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Record Issued - Stores And Publishes The Result In One Script")
+    void recordIssued() throws Exception {
+        // When
+        issuanceResultService.recordIssued(REQUEST_ID, coupon);
+
+        // Then
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisScriptService).eval(contains("PUBLISH"), eq(List.of(RESULT_KEY)), args.capture());
+        CouponDto.IssueResult stored = objectMapper.readValue((String) args.getValue()[0], CouponDto.IssueResult.class);
+        assertThat(stored.getStatus()).isEqualTo(IssueStatus.ISSUED);
+        assertThat(stored.getCoupon().getId()).isEqualTo(7L);
+        assertThat(args.getValue()[1]).isEqualTo(300_000L);
+    }
+
+    @Test
+    @DisplayName("Get Result - Returns The Recorded Result To Its Owner")
+    void getResult_Owner() throws Exception {
+        // Given
+        when(redissonClient.getBucket(eq(RESULT_KEY), any(Codec.class))).thenReturn(bucket);
+        when(bucket.get()).thenReturn(objectMapper.writeValueAsString(issuedResult()));
+
+        // When
+        CouponDto.IssueResult result = issuanceResultService.getResult(REQUEST_ID, TEST_USER_ID);
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(IssueStatus.ISSUED);
+        assertThat(result.getCoupon().getCouponCode()).isEqualTo("TEST123");
+    }
+
+    @Test
+    @DisplayName("Get Result - Unknown And Foreign Requests Read As Pending")
+    void getResult_Pending() throws Exception {
+        // Given
+        when(redissonClient.getBucket(eq(RESULT_KEY), any(Codec.class))).thenReturn(bucket);
+        when(bucket.get()).thenReturn(null, objectMapper.writeValueAsString(issuedResult()));
+
+        // When
+        CouponDto.IssueResult unknown = issuanceResultService.getResult(REQUEST_ID, TEST_USER_ID);
+        CouponDto.IssueResult foreign = issuanceResultService.getResult(REQUEST_ID, 2L);
+
+        // Then
+        assertThat(unknown.getStatus()).isEqualTo(IssueStatus.PENDING);
+        assertThat(foreign.getStatus()).isEqualTo(IssueStatus.PENDING);
+        assertThat(foreign.getCoupon()).isNull();
+    }
+
+    private CouponDto.IssueResult issuedResult() {
+        return CouponDto.IssueResult.builder()
+                .requestId(REQUEST_ID)
+                .userId(TEST_USER_ID)
+                .status(IssueStatus.ISSUED)
+                .coupon(CouponDto.CouponResponse.from(coupon))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.config.JwtProperties;
+import com.example.userservice.entity.User;
+import com.example.userservice.service.JWTService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens signed and validated per second on one thread. The {@code rebuilt*} benchmarks reproduce
+ * the previous path, which derived the key and built a parser on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "SpringBootPromotionServiceWithRedisAndKafka";
+    private static final String ROTATED_SECRET = "RotatedPromotionServiceSigningKeyForBench";
+
+    private JWTService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setKeys(Map.of("2026-10", ROTATED_SECRET));
+        jwtProperties.setSigningKeyId("2026-10");
+        // Revocation is not on the measured path
+        jwtService = new JWTService(jwtProperties, null);
+
+        user = User.builder().id(42).build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims validate() {
+        return jwtService.parseJwtClaims(token);
+    }
+
+    @Benchmark
+    public Claims rebuiltValidate() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(ROTATED_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String rebuiltGenerate() {
+        long currentTimeMillis = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId("2026-10").and()
+                .subject(user.getId().toString())
+                .claim("role", "USER")
+                .issuedAt(new Date(currentTimeMillis))
+                .expiration(new Date(currentTimeMillis + 3600000))
+                .signWith(Keys.hmacShaKeyFor(ROTATED_SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
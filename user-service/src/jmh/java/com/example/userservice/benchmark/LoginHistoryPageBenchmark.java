@@ -0,0 +1,161 @@
+package com.example.userservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of login history for a user with 1M entries, in H2 with the schema and index of
+ * {@code UserLoginHistory}. {@code keysetPage} is the query behind {@code findPageBefore};
+ * {@code offsetPage} pages with OFFSET and {@code fullHistory} loads everything, as the endpoint
+ * used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class LoginHistoryPageBenchmark {
+
+    private static final int USER_ID = 1;
+    private static final int HISTORY_ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final LocalDateTime FIRST_LOGIN = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private static final String KEYSET_SQL = "SELECT id, login_time, ip_address FROM user_login_histories " +
+            "WHERE user_id = ? AND (login_time < ? OR (login_time = ? AND id < ?)) " +
+            "ORDER BY login_time DESC, id DESC LIMIT ?";
+    private static final String OFFSET_SQL = "SELECT id, login_time, ip_address FROM user_login_histories " +
+            "WHERE user_id = ? ORDER BY login_time DESC, id DESC LIMIT ? OFFSET ?";
+    private static final String FULL_SQL = "SELECT id, login_time, ip_address FROM user_login_histories " +
+            "WHERE user_id = ? ORDER BY login_time DESC, id DESC";
+
+    // How many entries precede the requested page
+    @Param({"0", "10000", "500000"})
+    private int depth;
+
+    private Connection connection;
+    private Timestamp cursorLoginTime;
+    private int cursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:login-history-" + depth + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE user_login_histories (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, user_id INT NOT NULL, " +
+                    "login_time TIMESTAMP, ip_address VARCHAR(45))");
+            statement.execute("CREATE INDEX idx_user_login_histories_user_time " +
+                    "ON user_login_histories (user_id, login_time DESC, id DESC)");
+        }
+
+        // A second user's entries interleave with the benchmarked user's, as they would in production
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO user_login_histories (user_id, login_time, ip_address) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < HISTORY_ROWS; i++) {
+                Timestamp loginTime = Timestamp.valueOf(FIRST_LOGIN.plusSeconds(i));
+                addRow(insert, USER_ID, loginTime);
+                addRow(insert, USER_ID + 1, loginTime);
+                if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+
+        // The cursor the previous page would have returned
+        cursorLoginTime = Timestamp.valueOf(FIRST_LOGIN.plusSeconds(HISTORY_ROWS - depth));
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id FROM user_login_histories WHERE user_id = ? AND login_time = ?")) {
+            select.setInt(1, USER_ID);
+            select.setTimestamp(2, cursorLoginTime);
+            try (ResultSet resultSet = select.executeQuery()) {
+                cursorId = resultSet.next() ? resultSet.getInt(1) : Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void keysetPage(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(KEYSET_SQL)) {
+            select.setInt(1, USER_ID);
+            select.setTimestamp(2, cursorLoginTime);
+            select.setTimestamp(3, cursorLoginTime);
+            select.setInt(4, cursorId);
+            select.setInt(5, PAGE_SIZE + 1);
+            consume(select, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void offsetPage(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(OFFSET_SQL)) {
+            select.setInt(1, USER_ID);
+            select.setInt(2, PAGE_SIZE + 1);
+            select.setInt(3, depth);
+            consume(select, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void fullHistory(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(FULL_SQL)) {
+            select.setInt(1, USER_ID);
+            consume(select, blackhole);
+        }
+    }
+
+    private static void addRow(PreparedStatement insert, int userId, Timestamp loginTime) throws SQLException {
+        insert.setInt(1, userId);
+        insert.setTimestamp(2, loginTime);
+        insert.setString(3, "10.0.0." + (userId % 255));
+        insert.addBatch();
+    }
+
+    private static void consume(PreparedStatement select, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = select.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getInt(1));
+                blackhole.consume(resultSet.getTimestamp(2));
+                blackhole.consume(resultSet.getString(3));
+            }
+        }
+    }
+}
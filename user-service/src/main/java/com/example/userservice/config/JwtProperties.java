@@ -0,0 +1,25 @@
+package com.example.userservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HS256 keys shared with the gateway. {@code jwt.secret} signs and verifies tokens without a key
+ * id; {@code jwt.keys.<kid>} lists the keys that are active during a rotation, and
+ * {@code jwt.signing-key-id} picks the one new tokens are signed with.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    private String secret;
+    private Map<String, String> keys = new HashMap<>();
+    private String signingKeyId;
+}
@@ -1,15 +1,74 @@
 package com.example.userservice.config;
 
+import com.example.userservice.service.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
 @Configuration
 public class PasswordEncoderConfig {
 
+    private static final String CALIBRATION_PASSWORD = "calibration-password-1";
+    private static final int CALIBRATION_RUNS = 3;
+
+    /**
+     * Hashes passwords on {@code pool-size} threads (half the processors by default) with at
+     * most {@code queue-capacity} waiting. The cost is {@code user.password.cost} when set;
+     * otherwise it is calibrated at startup, which can differ between machines, so instances
+     * on mixed hardware should pin it to avoid rehashing users back and forth.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordHasher passwordHasher(
+            MeterRegistry meterRegistry,
+            @Value("${user.password.cost:0}") int cost,
+            @Value("${user.password.target-hash-millis:250}") long targetHashMillis,
+            @Value("${user.password.min-cost:10}") int minCost,
+            @Value("${user.password.max-cost:14}") int maxCost,
+            @Value("${user.password.pool-size:0}") int poolSize,
+            @Value("${user.password.queue-capacity:64}") int queueCapacity,
+            @Value("${user.password.timeout-millis:5000}") long timeoutMillis
+    ) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        int effectiveCost = cost > 0 ? cost : calibrateCost(targetHashMillis, minCost, maxCost);
+        log.info("Hashing passwords with BCrypt cost {} on {} threads", effectiveCost, threads);
+        return new PasswordHasher(effectiveCost, executor, timeoutMillis, meterRegistry);
+    }
+
+    // Each cost step doubles the work, so stop at the highest cost whose next step would overshoot
+    static int calibrateCost(long targetHashMillis, int minCost, int maxCost) {
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetHashMillis);
+        new BCryptPasswordEncoder(minCost).encode(CALIBRATION_PASSWORD);
+        for (int cost = minCost; cost < maxCost; cost++) {
+            if (measureHashNanos(cost) * 2 > targetNanos) {
+                return cost;
+            }
+        }
+        return maxCost;
+    }
+
+    private static long measureHashNanos(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long startedAt = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - startedAt);
+        }
+        return fastest;
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,10 @@ package com.example.userservice.controller;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.entity.User;
 import com.example.userservice.service.JWTService;
+import com.example.userservice.service.LoginHistoryRecorder;
 import com.example.userservice.service.UserService;
 import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,13 +24,19 @@ public class AuthController {
 
     private final JWTService jwtService;
     private final UserService userService;
+    private final LoginHistoryRecorder loginHistoryRecorder;
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+    private static final int MAX_IP_ADDRESS_LENGTH = 45;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(
-            @RequestBody UserDto.LoginRequest request
+            @RequestBody UserDto.LoginRequest request,
+            HttpServletRequest httpRequest
     ) {
         User user = userService.authenticate(request.getEmail(), request.getPassword());
         String token = jwtService.generateToken(user);
+        loginHistoryRecorder.record(user.getId(), clientIpAddress(httpRequest));
         return ResponseEntity.ok(UserDto.LoginResponse.builder()
                 .token(token)
                 .user(UserDto.Response.from(user))
@@ -47,6 +55,14 @@ public class AuthController {
                 .build());
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestBody UserDto.TokenRequest request
+    ) {
+        jwtService.revokeToken(request.getToken());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/refresh-token")
     public ResponseEntity<Map<String, String>> refreshToken(
             @RequestBody UserDto.TokenRequest tokenRequest
@@ -54,4 +70,17 @@ public class AuthController {
         String newToken = jwtService.refreshToken(tokenRequest.getToken());
         return ResponseEntity.ok(Collections.singletonMap("token", newToken));
     }
-}
\ No newline at end of file
+
+    // Requests arrive through the gateway, which appends the address it saw to X-Forwarded-For.
+    // Earlier hops come from the client and can be forged, so only the last one is trusted
+    private static String clientIpAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        String ipAddress = forwardedFor == null || forwardedFor.isBlank()
+                ? request.getRemoteAddr()
+                : forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        if (ipAddress != null && ipAddress.length() > MAX_IP_ADDRESS_LENGTH) {
+            return ipAddress.substring(0, MAX_IP_ADDRESS_LENGTH);
+        }
+        return ipAddress;
+    }
+}
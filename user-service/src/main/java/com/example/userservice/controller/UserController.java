@@ -2,8 +2,8 @@ package com.example.userservice.controller;
 
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.entity.User;
-import com.example.userservice.entity.UserLoginHistory;
 import com.example.userservice.exception.DuplicateUserException;
+import com.example.userservice.exception.InvalidCursorException;
 import com.example.userservice.exception.UnauthorizedAccessException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.service.UserService;
@@ -13,8 +13,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/users")
@@ -58,9 +56,11 @@ public class UserController {
     }
 
     @GetMapping("/me/login-history")
-    public ResponseEntity<List<UserLoginHistory>> getLoginHistory(
-            @RequestHeader("X-USER-ID") Integer userId) {
-        List<UserLoginHistory> history = userService.getUserLoginHistory(userId);
+    public ResponseEntity<UserDto.LoginHistoryPage> getLoginHistory(
+            @RequestHeader("X-USER-ID") Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        UserDto.LoginHistoryPage history = userService.getUserLoginHistory(userId, cursor, size);
         return ResponseEntity.ok(history);
     }
 
@@ -76,6 +76,11 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(exception.getMessage());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidCursorException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
+    }
+
     @ExceptionHandler(UnauthorizedAccessException.class)
     public ResponseEntity<String> handleUnauthorizedAccess(UnauthorizedAccessException exception) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(exception.getMessage());
@@ -0,0 +1,38 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last login history entry on a page, handed to clients as an opaque string.
+ * Entries are ordered by {@code (login_time, id)} descending, so the id breaks ties between
+ * logins recorded at the same instant.
+ */
+public record LoginHistoryCursor(LocalDateTime loginTime, Integer id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = loginTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static LoginHistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid login history cursor.");
+            }
+            return new LoginHistoryCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid login history cursor.");
+        }
+    }
+}
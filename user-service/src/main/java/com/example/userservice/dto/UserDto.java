@@ -1,12 +1,14 @@
 package com.example.userservice.dto;
 
 import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserLoginHistoryRepository.LoginHistoryView;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class UserDto {
 
@@ -113,4 +115,32 @@ public class UserDto {
         private String token;
         private Response user;
     }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class LoginHistoryResponse {
+        private Integer id;
+        private LocalDateTime loginTime;
+        private String ipAddress;
+
+        public static LoginHistoryResponse from(LoginHistoryView view) {
+            return LoginHistoryResponse.builder()
+                    .id(view.getId())
+                    .loginTime(view.getLoginTime())
+                    .ipAddress(view.getIpAddress())
+                    .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class LoginHistoryPage {
+        private List<LoginHistoryResponse> items;
+        // Pass back as ?cursor= for the next page; null on the last page
+        private String nextCursor;
+    }
 }
@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "user_login_histories")
+@Table(name = "user_login_histories", indexes = {
+        // Serves the keyset-paginated history of one user without a sort
+        @Index(name = "idx_user_login_histories_user_time", columnList = "user_id, login_time DESC, id DESC")
+})
 public class UserLoginHistory {
 
     @Id
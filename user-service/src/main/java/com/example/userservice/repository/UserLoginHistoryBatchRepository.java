@@ -0,0 +1,28 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.service.LoginHistoryRecorder.LoginEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class UserLoginHistoryBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_login_histories (user_id, login_time, ip_address) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // IDENTITY ids keep Hibernate from batching inserts, so history rows go through JDBC directly
+    public void insertAll(List<LoginEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setInt(1, event.userId());
+            statement.setTimestamp(2, Timestamp.valueOf(event.loginTime()));
+            statement.setString(3, event.ipAddress());
+        });
+    }
+}
@@ -1,12 +1,36 @@
 package com.example.userservice.repository;
 
-import com.example.userservice.entity.User;
 import com.example.userservice.entity.UserLoginHistory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface UserLoginHistoryRepository extends JpaRepository<UserLoginHistory, Integer> {
 
-    List<UserLoginHistory> findByUserOrderByLoginTimeDesc(User user);
+    @Query("SELECT h.id AS id, h.loginTime AS loginTime, h.ipAddress AS ipAddress FROM UserLoginHistory h " +
+            "WHERE h.user.id = :userId " +
+            "ORDER BY h.loginTime DESC, h.id DESC")
+    List<LoginHistoryView> findFirstPage(@Param("userId") Integer userId, Pageable pageable);
+
+    // Seeks past the cursor on (login_time, id) instead of skipping rows with an offset
+    @Query("SELECT h.id AS id, h.loginTime AS loginTime, h.ipAddress AS ipAddress FROM UserLoginHistory h " +
+            "WHERE h.user.id = :userId " +
+            "AND (h.loginTime < :loginTime OR (h.loginTime = :loginTime AND h.id < :id)) " +
+            "ORDER BY h.loginTime DESC, h.id DESC")
+    List<LoginHistoryView> findPageBefore(@Param("userId") Integer userId,
+                                          @Param("loginTime") LocalDateTime loginTime,
+                                          @Param("id") Integer id,
+                                          Pageable pageable);
+
+    interface LoginHistoryView {
+        Integer getId();
+
+        LocalDateTime getLoginTime();
+
+        String getIpAddress();
+    }
 }
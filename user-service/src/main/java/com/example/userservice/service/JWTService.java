@@ -1,62 +1,132 @@
 package com.example.userservice.service;
 
+import com.example.userservice.config.JwtProperties;
 import com.example.userservice.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
-@Service
-@RequiredArgsConstructor
+/**
+ * Issues and validates access tokens.
+ * <p>
+ * Keys and the parser are built once at startup; both are immutable and shared by all requests.
+ * Tokens are verified with the key named by their {@code kid} header, or {@code jwt.secret} when
+ * they have none, so tokens signed before a rotation stay valid until they expire.
+ */
 @Slf4j
+@Service
 public class JWTService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    public static final Duration TOKEN_VALIDITY = Duration.ofHours(1);
+    // iat only has second precision, too coarse to order a token against a revocation
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    private final TokenRevocationService tokenRevocationService;
+    private final String signingKeyId;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+
+    public JWTService(JwtProperties jwtProperties, TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+
+        SecretKey defaultKey = jwtProperties.getSecret() != null ? toKey(jwtProperties.getSecret()) : null;
+        Map<String, SecretKey> keys = new HashMap<>();
+        jwtProperties.getKeys().forEach((keyId, secret) -> keys.put(keyId, toKey(secret)));
+
+        this.signingKeyId = jwtProperties.getSigningKeyId();
+        this.signingKey = signingKeyId == null ? defaultKey : keys.get(signingKeyId);
+        if (signingKey == null) {
+            throw new IllegalStateException(signingKeyId == null
+                    ? "jwt.secret must be set"
+                    : "jwt.keys has no key for jwt.signing-key-id: " + signingKeyId);
+        }
+
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        String keyId = header.getKeyId();
+                        Key key = keyId == null ? defaultKey : keys.get(keyId);
+                        if (key == null) {
+                            throw new JwtException("Unknown JWT key id: " + keyId);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
 
     public String generateToken(User user) {
         long currentTimeMillis = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(signingKeyId).and()
                 .subject(user.getId().toString())
                 .claim("role", "USER")
+                .claim(ISSUED_AT_MILLIS_CLAIM, currentTimeMillis)
                 .issuedAt(new Date(currentTimeMillis))
-                .expiration(new Date(currentTimeMillis + 3600000)) // Token expires in 1 hour
-                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
+                .expiration(new Date(currentTimeMillis + TOKEN_VALIDITY.toMillis()))
+                .signWith(signingKey)
                 .compact();
     }
 
     public Claims validateToken(String token) {
+        Claims claims;
         try {
-            return parseJwtClaims(token);
+            claims = parseJwtClaims(token);
         } catch (Exception e) {
             log.error("Token validation error: ", e);
             throw new IllegalArgumentException("Invalid token");
         }
+        if (tokenRevocationService.isRevoked(token, Integer.valueOf(claims.getSubject()), issuedAt(claims))) {
+            throw new IllegalArgumentException("Token has been revoked");
+        }
+        return claims;
+    }
+
+    public void revokeToken(String token) {
+        Claims claims = validateToken(token);
+        tokenRevocationService.revokeToken(token, claims.getExpiration());
     }
 
     public Claims parseJwtClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     public String refreshToken(String token) {
-        Claims claims = parseJwtClaims(token);
+        Claims claims = validateToken(token);
         long currentTimeMillis = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(signingKeyId).and()
                 .subject(claims.getSubject())
                 .claims(claims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, currentTimeMillis)
                 .issuedAt(new Date(currentTimeMillis))
-                .expiration(new Date(currentTimeMillis + 3600000))
-                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
+                .expiration(new Date(currentTimeMillis + TOKEN_VALIDITY.toMillis()))
+                .signWith(signingKey)
                 .compact();
     }
+
+    // Tokens issued before the millisecond claim fall back to iat
+    private static Date issuedAt(Claims claims) {
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        return issuedAtMillis != null ? new Date(issuedAtMillis) : claims.getIssuedAt();
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.userservice.service;
+
+import com.example.userservice.repository.UserLoginHistoryBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records logins off the request thread. Events go into a bounded ring buffer and a single
+ * background writer flushes them in JDBC batches, once a batch fills up or the oldest event has
+ * waited {@code flush-interval-millis}.
+ * <p>
+ * A login never waits for the buffer: when it is full the event is dropped and counted in
+ * {@code login.history.dropped}. On shutdown the buffer stops accepting events and everything
+ * already in it is written before the datasource goes away.
+ */
+@Slf4j
+@Service
+public class LoginHistoryRecorder {
+
+    private final UserLoginHistoryBatchRepository batchRepository;
+    private final BlockingQueue<LoginEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMillis;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "login-history-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean accepting = true;
+
+    public LoginHistoryRecorder(
+            UserLoginHistoryBatchRepository batchRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.login-history.buffer-size:10000}") int bufferSize,
+            @Value("${user.login-history.batch-size:500}") int batchSize,
+            @Value("${user.login-history.flush-interval-millis:200}") long flushIntervalMillis,
+            @Value("${user.login-history.shutdown-timeout-millis:5000}") long shutdownTimeoutMillis
+    ) {
+        this.batchRepository = batchRepository;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.writtenCounter = meterRegistry.counter("login.history.written");
+        this.droppedCounter = meterRegistry.counter("login.history.dropped");
+        meterRegistry.gauge("login.history.buffered", buffer, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.execute(this::writeLoop);
+    }
+
+    /**
+     * Queues a login for writing and returns immediately.
+     */
+    public void record(Integer userId, String ipAddress) {
+        LoginEvent event = new LoginEvent(userId, LocalDateTime.now(), ipAddress);
+        if (!accepting || !buffer.offer(event)) {
+            droppedCounter.increment();
+            log.warn("Login history buffer is full or closed, dropping login of user {}", userId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("Login history writer did not finish within {} ms", shutdownTimeoutMillis);
+            writer.shutdownNow();
+        }
+        // Anything the writer left behind is drained on this thread
+        List<LoginEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+    }
+
+    private void writeLoop() {
+        List<LoginEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (accepting || !buffer.isEmpty()) {
+                collect(batch);
+                write(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            write(batch);
+        }
+    }
+
+    // Waits for a first event, then lingers up to the flush interval for the batch to fill
+    private void collect(List<LoginEvent> batch) throws InterruptedException {
+        LoginEvent first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            LoginEvent next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    // A failed batch is logged and dropped rather than retried, so one bad row cannot stall the buffer
+    private void write(List<LoginEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batchRepository.insertAll(batch);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            droppedCounter.increment(batch.size());
+            log.error("Failed to write {} login history entries: {}", batch.size(), e.getMessage(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    public record LoginEvent(Integer userId, LocalDateTime loginTime, String ipAddress) {
+    }
+}
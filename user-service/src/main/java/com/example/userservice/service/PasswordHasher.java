@@ -0,0 +1,105 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Getter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs BCrypt on its own bounded pool so a burst of logins cannot take every CPU from the
+ * request threads. When the pool and its queue are full, or a hash is not done in time, the
+ * caller gets {@link PasswordHashingUnavailableException} instead of waiting.
+ * <p>
+ * The pool is published as {@code executor.*} metrics tagged {@code name=password-hashing};
+ * rejections are counted in {@code password.hashing.rejected}.
+ */
+public class PasswordHasher {
+
+    private static final String EXECUTOR_NAME = "password-hashing";
+    private static final int COST_OFFSET = 4;
+
+    private final BCryptPasswordEncoder encoder;
+    @Getter
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(int cost, ThreadPoolExecutor executor, long timeoutMillis, MeterRegistry meterRegistry) {
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.rejectedCounter = meterRegistry.counter("password.hashing.rejected");
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether the hash was made with a different cost than the current one, e.g. before the
+     * service moved to faster or slower hardware.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return costOf(encodedPassword) != cost;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // BCrypt hashes look like $2a$10$..., with the cost as two digits after the version
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < COST_OFFSET + 2) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(COST_OFFSET, COST_OFFSET + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingUnavailableException("Too many password checks in progress, try again shortly.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Password check timed out, try again shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Password check was interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+}
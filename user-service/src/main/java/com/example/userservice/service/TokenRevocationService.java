@@ -0,0 +1,77 @@
+package com.example.userservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Records revoked tokens in Redis and announces them to the gateways, which cache validated
+ * tokens until they expire. The keys live as long as the tokens they revoke could.
+ * <p>
+ * A user revocation holds its time in epoch milliseconds and only refuses tokens issued strictly
+ * before it, so a token issued right after a password change stays valid.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final String REVOCATION_CHANNEL = "auth:token-revocations";
+    private static final String REVOKED_TOKEN_KEY = "auth:revoked:token:";
+    private static final String REVOKED_USER_KEY = "auth:revoked:user:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void revokeToken(String token, Date expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt.toInstant());
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        String tokenHash = hash(token);
+        redisTemplate.opsForValue().set(REVOKED_TOKEN_KEY + tokenHash, "1", remaining);
+        redisTemplate.convertAndSend(REVOCATION_CHANNEL, "token:" + tokenHash);
+    }
+
+    /**
+     * Revokes every token issued to the user up to now, e.g. after a password change.
+     */
+    public void revokeUser(Integer userId) {
+        redisTemplate.opsForValue().set(REVOKED_USER_KEY + userId,
+                String.valueOf(Instant.now().toEpochMilli()), JWTService.TOKEN_VALIDITY);
+        redisTemplate.convertAndSend(REVOCATION_CHANNEL, "user:" + userId);
+    }
+
+    public boolean isRevoked(String token, Integer userId, Date issuedAt) {
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(List.of(REVOKED_TOKEN_KEY + hash(token), REVOKED_USER_KEY + userId));
+        if (values == null) {
+            return false;
+        }
+        if (values.get(0) != null) {
+            return true;
+        }
+        // Without an issue time the token may predate the revocation, so it is refused
+        String revokedAt = values.get(1);
+        return revokedAt != null
+                && (issuedAt == null || issuedAt.getTime() < Long.parseLong(revokedAt));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
@@ -1,26 +1,35 @@
 package com.example.userservice.service;
 
+import com.example.userservice.dto.LoginHistoryCursor;
+import com.example.userservice.dto.UserDto;
 import com.example.userservice.entity.User;
-import com.example.userservice.entity.UserLoginHistory;
 import com.example.userservice.exception.DuplicateUserException;
+import com.example.userservice.exception.PasswordHashingUnavailableException;
 import com.example.userservice.exception.UnauthorizedAccessException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.repository.UserLoginHistoryRepository;
+import com.example.userservice.repository.UserLoginHistoryRepository.LoginHistoryView;
 import com.example.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    public static final int MAX_LOGIN_HISTORY_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final UserLoginHistoryRepository userLoginHistoryRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TokenRevocationService tokenRevocationService;
 
     public User createUser(String email, String password, String name) {
         if (userRepository.findByEmail(email).isPresent()) {
@@ -29,7 +38,7 @@ public class UserService {
 
         User user = User.builder()
                 .email(email)
-                .passwordHash(passwordEncoder.encode(password))
+                .passwordHash(passwordHasher.encode(password))
                 .name(name)
                 .build();
         return userRepository.save(user);
@@ -39,10 +48,20 @@ public class UserService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("User not found with email " + email));
 
-        if(!passwordEncoder.matches(password, user.getPasswordHash())) {
+        if(!passwordHasher.matches(password, user.getPasswordHash())) {
             throw new UnauthorizedAccessException("Invalid Credentials");
         }
 
+        // The password is known only now, so this is the moment to move it to the current cost
+        if (passwordHasher.needsRehash(user.getPasswordHash())) {
+            try {
+                user.setPasswordHash(passwordHasher.encode(password));
+                userRepository.save(user);
+            } catch (PasswordHashingUnavailableException e) {
+                log.warn("Skipping password rehash for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+
         return user;
     }
 
@@ -62,16 +81,46 @@ public class UserService {
     public void changePassword(Integer userId, String currentPassword, String newPassword) {
         User user = getUserById(userId);
 
-        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!passwordHasher.matches(currentPassword, user.getPasswordHash())) {
             throw new UnauthorizedAccessException("Current password is incorrect");
         }
 
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        user.setPasswordHash(passwordHasher.encode(newPassword));
         userRepository.save(user);
+        tokenRevocationService.revokeUser(userId);
     }
 
-    public List<UserLoginHistory> getUserLoginHistory(Integer userId) {
-        User user = getUserById(userId);
-        return userLoginHistoryRepository.findByUserOrderByLoginTimeDesc(user);
+    /**
+     * Returns one page of the user's logins, newest first. Pages are addressed by the cursor of
+     * the previous page rather than an offset, so every page costs the same index range scan.
+     */
+    @Transactional(readOnly = true)
+    public UserDto.LoginHistoryPage getUserLoginHistory(Integer userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found with ID: " + userId);
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_LOGIN_HISTORY_PAGE_SIZE));
+        // One extra row tells whether another page follows without a count query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<LoginHistoryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = userLoginHistoryRepository.findFirstPage(userId, pageable);
+        } else {
+            LoginHistoryCursor after = LoginHistoryCursor.decode(cursor);
+            rows = userLoginHistoryRepository.findPageBefore(userId, after.loginTime(), after.id(), pageable);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<LoginHistoryView> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            LoginHistoryView last = page.get(page.size() - 1);
+            nextCursor = new LoginHistoryCursor(last.getLoginTime(), last.getId()).encode();
+        }
+        return UserDto.LoginHistoryPage.builder()
+                .items(page.stream().map(UserDto.LoginHistoryResponse::from).toList())
+                .nextCursor(nextCursor)
+                .build();
     }
 }
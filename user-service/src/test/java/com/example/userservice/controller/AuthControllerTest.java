@@ -0,0 +1,93 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.entity.User;
+import com.example.userservice.service.JWTService;
+import com.example.userservice.service.LoginHistoryRecorder;
+import com.example.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    @InjectMocks
+    private AuthController authController;
+
+    @Mock
+    private JWTService jwtService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private LoginHistoryRecorder loginHistoryRecorder;
+
+    private final UserDto.LoginRequest loginRequest = UserDto.LoginRequest.builder()
+            .email("user@example.com")
+            .password("password1")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .id(1)
+                .email("user@example.com")
+                .name("User")
+                .build();
+        when(userService.authenticate("user@example.com", "password1")).thenReturn(user);
+        when(jwtService.generateToken(user)).thenReturn("token");
+    }
+
+    @Test
+    @DisplayName("Login - Records The Hop The Gateway Appended")
+    void login_RecordsLastForwardedHop() {
+        // Given
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("10.0.0.2");
+        httpRequest.addHeader("X-Forwarded-For", "1.2.3.4, 203.0.113.7");
+
+        // When
+        authController.login(loginRequest, httpRequest);
+
+        // Then
+        verify(loginHistoryRecorder).record(1, "203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("Login - Single Hop Is The Client")
+    void login_RecordsSingleForwardedHop() {
+        // Given
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("10.0.0.2");
+        httpRequest.addHeader("X-Forwarded-For", "203.0.113.7");
+
+        // When
+        authController.login(loginRequest, httpRequest);
+
+        // Then
+        verify(loginHistoryRecorder).record(1, "203.0.113.7");
+    }
+
+    @Test
+    @DisplayName("Login - Without X-Forwarded-For The Remote Address Is Recorded")
+    void login_RecordsRemoteAddress() {
+        // Given
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.setRemoteAddr("10.0.0.2");
+
+        // When
+        authController.login(loginRequest, httpRequest);
+
+        // Then
+        verify(loginHistoryRecorder).record(1, "10.0.0.2");
+    }
+}
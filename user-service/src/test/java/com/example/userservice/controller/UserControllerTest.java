@@ -0,0 +1,55 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.LoginHistoryCursor;
+import com.example.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    @InjectMocks
+    private UserController userController;
+
+    @Mock
+    private UserService userService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
+    }
+
+    @Test
+    @DisplayName("Get Login History Fail - Malformed Cursor Is A Bad Request")
+    void getLoginHistory_Fail_MalformedCursor() throws Exception {
+        // Given
+        when(userService.getUserLoginHistory(eq(1), anyString(), anyInt())).thenAnswer(invocation -> {
+            LoginHistoryCursor.decode(invocation.getArgument(1));
+            return null;
+        });
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/users/me/login-history")
+                        .header("X-USER-ID", "1")
+                        .param("cursor", "bm90LWEtY3Vyc29y"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid login history cursor."));
+    }
+}
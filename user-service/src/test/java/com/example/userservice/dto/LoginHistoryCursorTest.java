@@ -0,0 +1,49 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.exception.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginHistoryCursorTest {
+
+    @Test
+    @DisplayName("Encode And Decode - Round Trip")
+    void encodeDecode_RoundTrip() {
+        // Given
+        LoginHistoryCursor cursor = new LoginHistoryCursor(LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_456_000), 42);
+
+        // When
+        LoginHistoryCursor decoded = LoginHistoryCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Decode Fail - Malformed Cursor")
+    void decode_Fail_Malformed() {
+        // When & Then
+        assertInvalid("not base64!");
+        assertInvalid(encode("2026-10-18T09:30:15"));
+        assertInvalid(encode("2026-10-18T09:30:15|abc"));
+        assertInvalid(encode("yesterday|42"));
+        assertInvalid("");
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> LoginHistoryCursor.decode(cursor))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage("Invalid login history cursor.");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.User;
+import com.example.userservice.entity.UserLoginHistory;
+import com.example.userservice.repository.UserLoginHistoryRepository.LoginHistoryView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class UserLoginHistoryRepositoryTest {
+
+    private static final LocalDateTime EARLIER = LocalDateTime.of(2026, 10, 18, 9, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2026, 10, 18, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserLoginHistoryRepository userLoginHistoryRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .email("user@example.com")
+                .name("User")
+                .passwordHash("hash")
+                .build());
+        User otherUser = entityManager.persist(User.builder()
+                .email("other@example.com")
+                .name("Other")
+                .passwordHash("hash")
+                .build());
+        login(otherUser, LATER);
+    }
+
+    @Test
+    @DisplayName("Find Page Before - Logins At The Same Time Are Ordered By Id")
+    void findPageBefore_TieBreaksById() {
+        // Given
+        Integer first = login(user, EARLIER);
+        Integer second = login(user, LATER);
+        Integer third = login(user, LATER);
+        Integer fourth = login(user, LATER);
+
+        // When
+        List<LoginHistoryView> firstPage = userLoginHistoryRepository.findFirstPage(user.getId(), PageRequest.of(0, 2));
+        LoginHistoryView last = firstPage.get(firstPage.size() - 1);
+        List<LoginHistoryView> nextPage = userLoginHistoryRepository.findPageBefore(
+                user.getId(), last.getLoginTime(), last.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(firstPage).extracting(LoginHistoryView::getId).containsExactly(fourth, third);
+        assertThat(nextPage).extracting(LoginHistoryView::getId).containsExactly(second, first);
+    }
+
+    private Integer login(User user, LocalDateTime loginTime) {
+        UserLoginHistory history = new UserLoginHistory();
+        history.setUser(user);
+        history.setLoginTime(loginTime);
+        history.setIpAddress("127.0.0.1");
+        return entityManager.persistAndFlush(history).getId();
+    }
+}
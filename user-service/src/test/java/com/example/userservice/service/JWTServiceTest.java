@@ -0,0 +1,130 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.JwtProperties;
+import com.example.userservice.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JWTServiceTest {
+
+    private static final String SECRET = "SpringBootPromotionServiceWithRedisAndKafka";
+    private static final String ROTATED_SECRET = "RotatedPromotionServiceSigningKeyForTests!";
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JWTService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setKeys(Map.of("2026-10", ROTATED_SECRET));
+        jwtProperties.setSigningKeyId("2026-10");
+        jwtService = new JWTService(jwtProperties, tokenRevocationService);
+
+        user = User.builder().id(42).build();
+    }
+
+    @Test
+    @DisplayName("Generate Token - Signed With The Active Key Id")
+    void generateToken_ActiveKeyId() {
+        // When
+        String token = jwtService.generateToken(user);
+
+        // Then
+        Claims claims = jwtService.validateToken(token);
+        assertThat(claims.getSubject()).isEqualTo("42");
+        assertThat(Jwts.parser()
+                .verifyWith(key(ROTATED_SECRET))
+                .build()
+                .parseSignedClaims(token)
+                .getHeader()
+                .getKeyId()).isEqualTo("2026-10");
+    }
+
+    @Test
+    @DisplayName("Validate Token - Revocation Is Checked Against The Millisecond Issue Time")
+    void validateToken_MillisecondIssueTime() {
+        // Given
+        long before = System.currentTimeMillis();
+        String token = jwtService.generateToken(user);
+
+        // When
+        Claims claims = jwtService.validateToken(token);
+
+        // Then
+        Long issuedAtMillis = claims.get(JWTService.ISSUED_AT_MILLIS_CLAIM, Long.class);
+        assertThat(issuedAtMillis).isBetween(before, System.currentTimeMillis());
+        verify(tokenRevocationService).isRevoked(token, 42, new Date(issuedAtMillis));
+    }
+
+    @Test
+    @DisplayName("Validate Token - Token Signed Before The Rotation Stays Valid")
+    void validateToken_PreviousKey() {
+        // Given
+        String token = token(null, SECRET);
+
+        // When
+        Claims claims = jwtService.validateToken(token);
+
+        // Then
+        assertThat(claims.getSubject()).isEqualTo("42");
+    }
+
+    @Test
+    @DisplayName("Validate Token Fail - Unknown Key Id")
+    void validateToken_Fail_UnknownKeyId() {
+        // When & Then
+        assertThatThrownBy(() -> jwtService.validateToken(token("2027-01", ROTATED_SECRET)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid token");
+    }
+
+    @Test
+    @DisplayName("Create Fail - Signing Key Id Without A Key")
+    void create_Fail_MissingSigningKey() {
+        // Given
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.setSigningKeyId("2027-01");
+
+        // When & Then
+        assertThatThrownBy(() -> new JWTService(jwtProperties, tokenRevocationService))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("jwt.keys has no key for jwt.signing-key-id: 2027-01");
+    }
+
+    private String token(String keyId, String secret) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .subject("42")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 3600000))
+                .signWith(key(secret))
+                .compact();
+    }
+
+    private static SecretKey key(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
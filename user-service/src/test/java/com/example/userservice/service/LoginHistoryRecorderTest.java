@@ -0,0 +1,94 @@
+package com.example.userservice.service;
+
+import com.example.userservice.repository.UserLoginHistoryBatchRepository;
+import com.example.userservice.service.LoginHistoryRecorder.LoginEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class LoginHistoryRecorderTest {
+
+    @Mock
+    private UserLoginHistoryBatchRepository batchRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final List<List<LoginEvent>> writtenBatches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        doAnswer(invocation -> {
+            writtenBatches.add(List.copyOf(invocation.<List<LoginEvent>>getArgument(0)));
+            return null;
+        }).when(batchRepository).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Record - Logins Are Written In Batches")
+    void record_WrittenInBatches() throws InterruptedException {
+        // Given
+        LoginHistoryRecorder recorder = new LoginHistoryRecorder(batchRepository, meterRegistry, 100, 10, 50, 1000);
+
+        // When
+        for (int userId = 1; userId <= 25; userId++) {
+            recorder.record(userId, "127.0.0.1");
+        }
+        recorder.start();
+        recorder.shutdown();
+
+        // Then
+        assertThat(writtenBatches).extracting(List::size).containsExactly(10, 10, 5);
+        assertThat(writtenBatches.get(0).get(0).userId()).isEqualTo(1);
+        assertThat(meterRegistry.counter("login.history.written").count()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Record - Full Buffer Drops Instead Of Blocking")
+    void record_FullBufferDrops() throws InterruptedException {
+        // Given
+        LoginHistoryRecorder recorder = new LoginHistoryRecorder(batchRepository, meterRegistry, 5, 100, 10, 1000);
+
+        // When
+        for (int userId = 1; userId <= 8; userId++) {
+            recorder.record(userId, "127.0.0.1");
+        }
+        recorder.start();
+        recorder.shutdown();
+
+        // Then
+        assertThat(meterRegistry.counter("login.history.dropped").count()).isEqualTo(3);
+        assertThat(writtenBatches).flatExtracting(batch -> batch).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("Shutdown - Buffered Logins Are Flushed And Later Ones Refused")
+    void shutdown_FlushesBuffer() throws InterruptedException {
+        // Given
+        LoginHistoryRecorder recorder = new LoginHistoryRecorder(batchRepository, meterRegistry, 100, 500, 20, 1000);
+        recorder.start();
+        recorder.record(1, "127.0.0.1");
+        recorder.record(2, "127.0.0.1");
+
+        // When
+        recorder.shutdown();
+        recorder.record(3, "127.0.0.1");
+
+        // Then
+        assertThat(writtenBatches).flatExtracting(batch -> batch)
+                .extracting(LoginEvent::userId)
+                .containsExactly(1, 2);
+        assertThat(meterRegistry.counter("login.history.dropped").count()).isEqualTo(1);
+    }
+}
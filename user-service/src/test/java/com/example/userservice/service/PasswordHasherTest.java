@@ -0,0 +1,85 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Encode And Match - Hashes With The Configured Cost")
+    void encodeAndMatch() {
+        // Given
+        PasswordHasher passwordHasher = newHasher(4, 1, 1);
+
+        // When
+        String encoded = passwordHasher.encode("password1");
+
+        // Then
+        assertThat(PasswordHasher.costOf(encoded)).isEqualTo(4);
+        assertThat(passwordHasher.matches("password1", encoded)).isTrue();
+        assertThat(passwordHasher.matches("password2", encoded)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Needs Rehash - Only When The Stored Cost Differs")
+    void needsRehash() {
+        // Given
+        PasswordHasher passwordHasher = newHasher(5, 1, 1);
+
+        // When & Then
+        assertThat(passwordHasher.needsRehash(new BCryptPasswordEncoder(4).encode("password1"))).isTrue();
+        assertThat(passwordHasher.needsRehash(new BCryptPasswordEncoder(5).encode("password1"))).isFalse();
+        assertThat(passwordHasher.needsRehash("not-a-bcrypt-hash")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Matches Fail - Rejected When The Pool And Queue Are Full")
+    void matches_Fail_Rejected() throws InterruptedException {
+        // Given
+        PasswordHasher passwordHasher = newHasher(4, 1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await(5, TimeUnit.SECONDS);
+        executor.execute(() -> { });
+
+        // When & Then
+        assertThatThrownBy(() -> passwordHasher.matches("password1", "$2a$04$invalid"))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+        assertThat(meterRegistry.counter("password.hashing.rejected").count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    private PasswordHasher newHasher(int cost, int threads, int queueCapacity) {
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        return new PasswordHasher(cost, executor, 5000, meterRegistry);
+    }
+}
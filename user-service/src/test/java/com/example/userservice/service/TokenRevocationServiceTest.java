@@ -0,0 +1,104 @@
+package com.example.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private static final String TOKEN = "token";
+    private static final String TOKEN_HASH = "3c469e9d6c5875d37a43f353d4f88e61fcf812c66eee3457465a40b0da4153e0";
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Revoke Token - Stored Until Expiry And Announced")
+    void revokeToken() {
+        // When
+        tokenRevocationService.revokeToken(TOKEN, new Date(System.currentTimeMillis() + 60000));
+
+        // Then
+        verify(valueOperations).set(eq("auth:revoked:token:" + TOKEN_HASH), eq("1"), any(Duration.class));
+        verify(redisTemplate).convertAndSend("auth:token-revocations", "token:" + TOKEN_HASH);
+    }
+
+    @Test
+    @DisplayName("Revoke User - Stored In Epoch Milliseconds And Announced")
+    void revokeUser() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        tokenRevocationService.revokeUser(1);
+
+        // Then
+        ArgumentCaptor<String> revokedAt = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("auth:revoked:user:1"), revokedAt.capture(), eq(JWTService.TOKEN_VALIDITY));
+        assertThat(Long.parseLong(revokedAt.getValue())).isBetween(before, System.currentTimeMillis());
+        verify(redisTemplate).convertAndSend("auth:token-revocations", "user:1");
+    }
+
+    @Test
+    @DisplayName("Is Revoked - Token Issued Later In The Same Second Stays Valid")
+    void isRevoked_IssuedAfterRevocation() {
+        // Given
+        givenUserRevokedAt("1760000000100");
+
+        // When & Then
+        assertThat(tokenRevocationService.isRevoked(TOKEN, 1, new Date(1760000000400L))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Is Revoked - Token Issued Before The Revocation Is Refused")
+    void isRevoked_IssuedBeforeRevocation() {
+        // Given
+        givenUserRevokedAt("1760000000100");
+
+        // When & Then
+        assertThat(tokenRevocationService.isRevoked(TOKEN, 1, new Date(1760000000099L))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(TOKEN, 1, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Is Revoked - Revoked Token Is Refused")
+    void isRevoked_Token() {
+        // Given
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("1", null));
+
+        // When & Then
+        assertThat(tokenRevocationService.isRevoked(TOKEN, 1, new Date())).isTrue();
+        verify(valueOperations).multiGet(Arrays.asList("auth:revoked:token:" + TOKEN_HASH, "auth:revoked:user:1"));
+    }
+
+    private void givenUserRevokedAt(String revokedAt) {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, revokedAt));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.LoginHistoryCursor;
+import com.example.userservice.dto.UserDto;
+import com.example.userservice.exception.InvalidCursorException;
+import com.example.userservice.repository.UserLoginHistoryRepository;
+import com.example.userservice.repository.UserLoginHistoryRepository.LoginHistoryView;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @InjectMocks
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserLoginHistoryRepository userLoginHistoryRepository;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private static final Integer USER_ID = 1;
+    private static final LocalDateTime LOGIN_TIME = LocalDateTime.of(2026, 10, 18, 9, 0);
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Get Login History - Page Size Is Clamped To 1..100")
+    void getUserLoginHistory_ClampsPageSize() {
+        // Given
+        when(userLoginHistoryRepository.findFirstPage(eq(USER_ID), any())).thenReturn(List.of());
+
+        // When
+        userService.getUserLoginHistory(USER_ID, null, 500);
+        userService.getUserLoginHistory(USER_ID, null, 0);
+
+        // Then
+        verify(userLoginHistoryRepository).findFirstPage(USER_ID, PageRequest.of(0, UserService.MAX_LOGIN_HISTORY_PAGE_SIZE + 1));
+        verify(userLoginHistoryRepository).findFirstPage(USER_ID, PageRequest.of(0, 2));
+    }
+
+    @Test
+    @DisplayName("Get Login History - Full Page Points At Its Last Entry")
+    void getUserLoginHistory_NextCursor() {
+        // Given
+        when(userLoginHistoryRepository.findFirstPage(eq(USER_ID), any())).thenReturn(rows(4));
+
+        // When
+        UserDto.LoginHistoryPage page = userService.getUserLoginHistory(USER_ID, null, 3);
+
+        // Then
+        assertThat(page.getItems()).extracting(UserDto.LoginHistoryResponse::getId).containsExactly(4, 3, 2);
+        assertThat(LoginHistoryCursor.decode(page.getNextCursor())).isEqualTo(new LoginHistoryCursor(LOGIN_TIME, 2));
+    }
+
+    @Test
+    @DisplayName("Get Login History - Last Page Has No Next Cursor")
+    void getUserLoginHistory_LastPage() {
+        // Given
+        String cursor = new LoginHistoryCursor(LOGIN_TIME, 4).encode();
+        when(userLoginHistoryRepository.findPageBefore(eq(USER_ID), eq(LOGIN_TIME), eq(4), any())).thenReturn(rows(3));
+
+        // When
+        UserDto.LoginHistoryPage page = userService.getUserLoginHistory(USER_ID, cursor, 3);
+
+        // Then
+        assertThat(page.getItems()).hasSize(3);
+        assertThat(page.getNextCursor()).isNull();
+        verify(userLoginHistoryRepository).findPageBefore(USER_ID, LOGIN_TIME, 4, PageRequest.of(0, 4));
+    }
+
+    @Test
+    @DisplayName("Get Login History Fail - Malformed Cursor")
+    void getUserLoginHistory_Fail_MalformedCursor() {
+        // When & Then
+        assertThatThrownBy(() -> userService.getUserLoginHistory(USER_ID, "not a cursor", 20))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(userLoginHistoryRepository);
+    }
+
+    // Newest first, all at the same login time so only the id orders them
+    private static List<LoginHistoryView> rows(int count) {
+        return IntStream.iterate(count, id -> id - 1)
+                .limit(count)
+                .<LoginHistoryView>mapToObj(id -> new Row(id, LOGIN_TIME, "127.0.0.1"))
+                .toList();
+    }
+
+    private record Row(Integer id, LocalDateTime loginTime, String ipAddress) implements LoginHistoryView {
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getLoginTime() {
+            return loginTime;
+        }
+
+        @Override
+        public String getIpAddress() {
+            return ipAddress;
+        }
+    }
+}